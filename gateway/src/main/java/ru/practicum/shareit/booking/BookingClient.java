@@ -1,63 +1,160 @@
 package ru.practicum.shareit.booking;
 
+import org.apache.http.conn.ConnectionReleaseTrigger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private static final String EXPORT_RESPONSE = BookingClient.class.getName() + ".exportResponse";
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                         HttpClientProperties properties, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                properties.isReactive()
+                        ? webClientBuilder
+                                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                                .build()
+                        : null,
+                properties.isPassthrough(),
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, String cursor, Integer from,
+                                              Integer size) {
+        return getBookingList("", userId, state, cursor, from, size);
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId, @Nullable String ifNoneMatch) {
+        return conditionalGet("/" + bookingId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> changeStatus(Long userId, Long bookingId, Boolean available) {
+    public Mono<ResponseEntity<Object>> changeStatus(Long userId, Long bookingId, Boolean available) {
         Map<String, Object> parameters = Map.of(
                 "approved", available
         );
         return patch(String.format("/%s?approved={approved}", bookingId), userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingsByItemOwner(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getBookingsByItemOwner(Long userId, BookingState state, String cursor, Integer from,
+                                                         Integer size) {
+        return getBookingList("/owner", userId, state, cursor, from, size);
+    }
+
+    /**
+     * Успешный ответ копируется клиенту по мере получения, без сборки тела в памяти. Ответ сервера
+     * освобождается при завершении запроса к шлюзу, даже если тело так и не начали копировать.
+     */
+    public ResponseEntity<StreamingResponseBody> exportBookingsByItemOwner(Long userId, BookingState state,
+                                                                           String format) throws IOException {
+        URI uri = rest.getUriTemplateHandler().expand("/owner/export?state={state}&format={format}", Map.of(
+                "state", state.name(),
+                "format", format
+        ));
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+        request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+        ClientHttpResponse response = request.execute();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(response.getHeaders().getContentType());
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            byte[] body;
+            try (response) {
+                body = StreamUtils.copyToByteArray(response.getBody());
+            }
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .headers(headers)
+                    .body(out -> out.write(body));
+        }
+        String contentDisposition = response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION);
+        if (contentDisposition != null) {
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        }
+        releaseOnCompletion(response);
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(out -> {
+                    try (response) {
+                        StreamUtils.copy(response.getBody(), out);
+                    }
+                });
+    }
+
+    /**
+     * По тайм-ауту или ошибке тело может быть дочитано не до конца. Такое соединение обрывается, а не дочитывается
+     * при закрытии, и копирующий поток сразу получает ошибку чтения. После полного копирования освобождать нечего.
+     */
+    private static void releaseOnCompletion(ClientHttpResponse response) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(EXPORT_RESPONSE,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) throws IOException {
+                        InputStream body = response.getBody();
+                        if (body instanceof ConnectionReleaseTrigger) {
+                            ((ConnectionReleaseTrigger) body).abortConnection();
+                        } else {
+                            response.close();
+                        }
+                    }
+                });
+    }
+
+    private Mono<ResponseEntity<Object>> getBookingList(String path, Long userId, BookingState state, String cursor,
+                                                  Integer from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        if (cursor == null) {
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get(path + "?state={state}&cursor={cursor}&size={size}", userId, parameters);
     }
 }
@@ -3,16 +3,20 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -23,45 +27,59 @@ public class BookingController {
 	private final BookingClient bookingClient;
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+	public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
+			@RequestParam(required = false) String cursor,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
 			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, cursor={}, from={}, size={}", stateParam, userId, cursor, from, size);
+		return bookingClient.getBookings(userId, state, cursor, from, size);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-										   @RequestBody @Valid BookItemRequestDto requestDto) {
+	public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+												 @RequestBody @Valid BookItemRequestDto requestDto) {
 		log.info("Creating booking {}, userId={}", requestDto, userId);
 		return bookingClient.bookItem(userId, requestDto);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-											 @PathVariable Long bookingId) {
+	public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+												   @PathVariable Long bookingId,
+												   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+												   String ifNoneMatch) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
-		return bookingClient.getBooking(userId, bookingId);
+		return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> changeStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
-											   @PathVariable Long bookingId,
-											   @RequestParam(name = "approved") Boolean available) {
+	public Mono<ResponseEntity<Object>> changeStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
+													 @PathVariable Long bookingId,
+													 @RequestParam(name = "approved") Boolean available) {
 		return bookingClient.changeStatus(userId, bookingId, available);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getBookingsByItemOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-														 @RequestParam(name = "state", defaultValue = "all") String stateParam,
-														 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-														 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+	public Mono<ResponseEntity<Object>> getBookingsByItemOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+															   @RequestParam(name = "state", defaultValue = "all") String stateParam,
+															   @RequestParam(required = false) String cursor,
+															   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+															   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookingsByItemOwner(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, cursor={}, from={}, size={}", stateParam, userId, cursor, from, size);
+		return bookingClient.getBookingsByItemOwner(userId, state, cursor, from, size);
+	}
+
+	@GetMapping("/owner/export")
+	public ResponseEntity<StreamingResponseBody> exportBookingsByItemOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+																		   @RequestParam(name = "state", defaultValue = "all") String stateParam,
+																		   @RequestParam(defaultValue = "ndjson") String format) throws IOException {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info("Export bookings with state {}, userId={}, format={}", stateParam, userId, format);
+		return bookingClient.exportBookingsByItemOwner(userId, state, format);
 	}
 }
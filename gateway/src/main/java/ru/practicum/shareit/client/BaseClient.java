@@ -1,86 +1,207 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
+    /**
+     * Заголовки одного соединения (RFC 7230, раздел 6.1) и длина тела, которую контейнер выставит сам.
+     */
+    private static final Set<String> NOT_FORWARDED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            "keep-alive",
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            HttpHeaders.TE.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRAILER.toLowerCase(Locale.ROOT),
+            HttpHeaders.UPGRADE.toLowerCase(Locale.ROOT),
+            HttpHeaders.PROXY_AUTHENTICATE.toLowerCase(Locale.ROOT),
+            HttpHeaders.PROXY_AUTHORIZATION.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT)
+    );
+
     protected final RestTemplate rest;
 
-    public BaseClient(RestTemplate rest) {
+    @Nullable
+    private final WebClient webClient;
+
+    private final boolean passthrough;
+
+    @Nullable
+    private final ResponseCache cache;
+
+    /**
+     * С {@code webClient} запросы к серверу не блокируют поток: контроллер получает незавершенный {@link Mono},
+     * и поток сервлета освобождается до ответа сервера. Без него запрос выполняется через {@code rest}
+     * в потоке контроллера, а завершенный {@link Mono} отдается без асинхронной обработки,
+     * см. {@link CompletedMonoRegistrations}.
+     * Изменения, проходящие через клиент, сбрасывают затронутые ответы в {@code cache}.
+     */
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, boolean passthrough,
+                      @Nullable ResponseCache cache) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+        this.cache = cache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * GET с заголовком If-None-Match клиента: если представление у клиента актуально, сервер ответит 304 с пустым телом.
+     */
+    protected Mono<ResponseEntity<Object>> conditionalGet(String path, long userId, @Nullable String ifNoneMatch) {
+        return send(HttpMethod.GET, path, conditionalHeaders(userId, ifNoneMatch), null, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                     boolean userDependent) {
+        return cachedGet(path, userId, parameters, userDependent, null);
+    }
+
+    /**
+     * GET с ответом из кэша шлюза. Если ответ не зависит от пользователя ({@code userDependent} = false),
+     * он общий для всех пользователей. Если ETag ответа из кэша есть в {@code ifNoneMatch}, клиент получает 304
+     * без обращения к серверу, а при промахе условный запрос уходит на сервер, и 304 сервера в кэш не попадает.
+     */
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                     boolean userDependent, @Nullable String ifNoneMatch) {
+        if (cache == null) {
+            return send(HttpMethod.GET, path, conditionalHeaders(userId, ifNoneMatch), parameters, null);
+        }
+        ResponseCache.Key key = new ResponseCache.Key(expand(path, parameters), userDependent ? userId : null);
+        ResponseEntity<Object> cached = cache.get(key);
+        if (cached != null) {
+            return Mono.just(isNotModified(cached, ifNoneMatch) ? notModified(cached) : cached);
+        }
+        long stamp = cache.begin(key);
+        if (webClient == null) {
+            return Mono.just(cache.put(key, stamp,
+                    sendBlocking(HttpMethod.GET, path, conditionalHeaders(userId, ifNoneMatch), parameters, null)));
+        }
+        return exchange(webClient, HttpMethod.GET, path, conditionalHeaders(userId, ifNoneMatch), parameters, null)
+                .map(response -> cache.put(key, stamp, response));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (cache == null || method == HttpMethod.GET) {
+            return send(method, path, defaultHeaders(userId), parameters, body);
+        }
+        URI uri = expand(path, parameters);
+        if (webClient != null) {
+            return Mono.defer(() -> send(method, path, defaultHeaders(userId), parameters, body))
+                    .doFinally(signal -> cache.invalidate(method, uri));
+        }
+        // Сервер мог применить изменение, даже если ответ до шлюза не дошел
+        try {
+            return send(method, path, defaultHeaders(userId), parameters, body);
+        } finally {
+            cache.invalidate(method, uri);
+        }
+    }
+
+    private <T> Mono<ResponseEntity<Object>> send(HttpMethod method, String path, HttpHeaders headers,
+                                                  @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (webClient != null) {
+            return exchange(webClient, method, path, headers, parameters, body);
+        }
+        return Mono.just(sendBlocking(method, path, headers, parameters, body));
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchange(WebClient webClient, HttpMethod method, String path,
+                                                      HttpHeaders requestHeaders,
+                                                      @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(requestHeaders));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.exchangeToMono(response -> passthrough
+                ? response.toEntity(byte[].class).map(BaseClient::forward)
+                : response.toEntity(Object.class).map(BaseClient::forward));
+    }
+
+    private <T> ResponseEntity<Object> sendBlocking(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        if (passthrough) {
+            return passthrough(method, path, parameters, requestEntity);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -95,6 +216,95 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    /**
+     * Отдает ответ сервера как есть: статус, заголовки и тело без разбора JSON. Тело читается из соединения
+     * при записи ответа шлюза, после чего соединение возвращается в пул.
+     */
+    private <T> ResponseEntity<Object> passthrough(HttpMethod method, String path,
+                                                   @Nullable Map<String, Object> parameters,
+                                                   HttpEntity<T> requestEntity) {
+        URI uri = expand(path, parameters);
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            rest.httpEntityCallback(requestEntity).doWithRequest(request);
+            response = request.execute();
+        } catch (IOException e) {
+            throw ioError(method, uri, e);
+        }
+        try {
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .headers(forwardedHeaders(response.getHeaders()))
+                    .body(new InputStreamResource(response.getBody()));
+        } catch (IOException e) {
+            response.close();
+            throw ioError(method, uri, e);
+        }
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
+    private static ResponseEntity<Object> forward(ResponseEntity<?> response) {
+        return ResponseEntity.status(response.getStatusCodeValue())
+                .headers(forwardedHeaders(response.getHeaders()))
+                .body(response.getBody());
+    }
+
+    private static HttpHeaders forwardedHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!NOT_FORWARDED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
+    private static ResourceAccessException ioError(HttpMethod method, URI uri, IOException e) {
+        return new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                + e.getMessage(), e);
+    }
+
+    private HttpHeaders conditionalHeaders(Long userId, @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return headers;
+    }
+
+    /**
+     * Сравнение по RFC 7232, раздел 3.2: для If-None-Match слабые и сильные теги с одним значением совпадают.
+     */
+    private static boolean isNotModified(ResponseEntity<Object> cached, @Nullable String ifNoneMatch) {
+        String eTag = cached.getHeaders().getETag();
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        String value = weakless(eTag);
+        for (String tag : ifNoneMatch.split(",")) {
+            if (weakless(tag.trim()).equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String weakless(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static ResponseEntity<Object> notModified(ResponseEntity<Object> cached) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(cached.getHeaders().getETag());
+        headers.setVary(cached.getHeaders().getVary());
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -109,6 +319,11 @@ public class BaseClient {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
         }
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(forwardedHeaders(response.getHeaders()))
+                    .build();
+        }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
 
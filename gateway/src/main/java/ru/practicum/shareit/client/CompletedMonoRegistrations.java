@@ -0,0 +1,94 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * В блокирующем режиме клиенты возвращают уже завершенный {@link Mono}. Его значение записывается в ответ сразу,
+ * как ResponseEntity из контроллера: без асинхронной обработки запроса и повторной диспетчеризации.
+ */
+@Component
+public class CompletedMonoRegistrations implements WebMvcRegistrations {
+    @Override
+    public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+        return new RequestMappingHandlerAdapter() {
+            @Override
+            public void afterPropertiesSet() {
+                super.afterPropertiesSet();
+                List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(getReturnValueHandlers());
+                handlers.add(0, new CompletedMonoReturnValueHandler(getReturnValueHandlers()));
+                setReturnValueHandlers(handlers);
+            }
+        };
+    }
+
+    private static class CompletedMonoReturnValueHandler implements HandlerMethodReturnValueHandler {
+        private final HandlerMethodReturnValueHandlerComposite handlers = new HandlerMethodReturnValueHandlerComposite();
+
+        private CompletedMonoReturnValueHandler(List<HandlerMethodReturnValueHandler> handlers) {
+            this.handlers.addHandlers(handlers);
+        }
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return Mono.class.isAssignableFrom(returnType.getParameterType());
+        }
+
+        @Override
+        public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                      ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+            if (returnValue instanceof Fuseable.ScalarCallable) {
+                handlers.handleReturnValue(((Callable<?>) returnValue).call(), new ValueParameter(returnType),
+                        mavContainer, webRequest);
+            } else {
+                handlers.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            }
+        }
+    }
+
+    /**
+     * Тип значения {@link Mono} вместо типа самого {@link Mono}.
+     */
+    private static class ValueParameter extends MethodParameter implements Cloneable {
+        private final ResolvableType type;
+
+        private ValueParameter(MethodParameter returnType) {
+            super(returnType);
+            type = ResolvableType.forMethodParameter(returnType).getGeneric();
+        }
+
+        private ValueParameter(ValueParameter original) {
+            super(original);
+            type = original.type;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return type.toClass();
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return type.getType();
+        }
+
+        @Override
+        public ValueParameter clone() {
+            return new ValueParameter(this);
+        }
+    }
+}
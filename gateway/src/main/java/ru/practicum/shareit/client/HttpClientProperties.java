@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула соединений шлюза с сервером. Все клиенты ходят на один адрес,
+ * поэтому лимит на маршрут по умолчанию совпадает с общим лимитом.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+    // Всего соединений в пуле
+    private int maxConnections = 200;
+
+    // Соединений на один адрес сервера
+    private int maxConnectionsPerRoute = 200;
+
+    // Ожидание установки TCP-соединения
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    // Ожидание данных от сервера между пакетами
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    // Наибольшая длительность потоковой выгрузки через шлюз, от запроса до последнего байта
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    // Ожидание свободного соединения из пула
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    // Сколько держать соединение открытым, если сервер не прислал Keep-Alive
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    // Простаивающие дольше закрываются фоновым потоком
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    // Соединение, простоявшее дольше, проверяется перед выдачей из пула
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    // Отдавать ответы сервера без разбора JSON; false — разбирать в Object и сериализовать заново
+    private boolean passthrough = true;
+
+    // Неблокирующие запросы через WebClient вместо RestTemplate
+    private boolean reactive = false;
+
+    // Наибольший ответ сервера, который WebClient собирает в памяти; по умолчанию у него 256 КиБ
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(16);
+}
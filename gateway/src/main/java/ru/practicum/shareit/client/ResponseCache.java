@@ -0,0 +1,172 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Успешные ответы сервера на GET-запросы вещей и запросов вещей. Ответы сбрасываются, когда шлюз проксирует
+ * изменение, которое могло их затронуть, а остальное устаревает не дольше чем через ttl.
+ * Метрики — {@code cache.gets}, {@code cache.evictions} и {@code cache.hit.ratio} с тегом cache=gateway-responses.
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    private static final String NAME = "gateway-responses";
+
+    private static final Pattern ITEM = Pattern.compile(".*/items/(\\d+)");
+
+    private static final Pattern ITEM_COMMENT = Pattern.compile(".*/items/(\\d+)/comment");
+
+    private final boolean enabled;
+
+    private final Cache<Key, ResponseEntity<Object>> responses;
+
+    // Запросы к серверу, ответы на которые еще можно положить в кэш. Сброс удаляет метку запроса
+    private final Cache<Key, Long> pending;
+
+    private final AtomicLong stamps = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        enabled = properties.isEnabled();
+        responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        pending = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, NAME);
+        Gauge.builder("cache.hit.ratio", responses, cache -> cache.stats().hitRate())
+                .tag("cache", NAME)
+                .description("Доля GET-запросов, отданных из кэша")
+                .register(meterRegistry);
+    }
+
+    @Nullable
+    public ResponseEntity<Object> get(Key key) {
+        return enabled ? responses.getIfPresent(key) : null;
+    }
+
+    /**
+     * Отмечает запрос к серверу за ответом для {@code key}. Метку нужно передать в {@link #put}.
+     */
+    public long begin(Key key) {
+        long stamp = stamps.incrementAndGet();
+        pending.put(key, stamp);
+        return stamp;
+    }
+
+    /**
+     * Кладет успешный ответ в кэш, если с {@link #begin} ответы для {@code key} не сбрасывались.
+     * Тело-поток при этом дочитывается в массив, поэтому вернуть клиенту нужно результат метода.
+     */
+    public ResponseEntity<Object> put(Key key, long stamp, ResponseEntity<Object> response) {
+        if (!enabled || !response.getStatusCode().is2xxSuccessful()) {
+            pending.asMap().remove(key, stamp);
+            return response;
+        }
+        ResponseEntity<Object> buffered = response.getBody() instanceof Resource
+                ? ResponseEntity.status(response.getStatusCodeValue())
+                        .headers(response.getHeaders())
+                        .body(read((Resource) response.getBody()))
+                : response;
+        responses.asMap().compute(key, (k, cached) -> Long.valueOf(stamp).equals(pending.getIfPresent(k))
+                ? buffered
+                : cached);
+        // Сброс мог пройти по кэшу до вставки, но тогда он уже удалил метку
+        if (!pending.asMap().remove(key, stamp)) {
+            responses.asMap().remove(key, buffered);
+        }
+        return buffered;
+    }
+
+    /**
+     * Сбрасывает ответы, которые мог изменить запрос {@code method} к {@code uri}: изменение вещи меняет
+     * ее карточку, поиск и запросы, на которые она отвечает, бронирование — последнее и следующее
+     * бронирование в карточках вещей, изменение или удаление пользователя — имена авторов отзывов и все его данные.
+     */
+    public void invalidate(HttpMethod method, URI uri) {
+        if (!enabled || method == HttpMethod.GET) {
+            return;
+        }
+        String path = uri.getPath();
+        Matcher comment = ITEM_COMMENT.matcher(path);
+        Matcher item = ITEM.matcher(path);
+        if (comment.matches()) {
+            remove(key -> key.getPath().endsWith("/items/" + comment.group(1)));
+        } else if (item.matches()) {
+            String itemPath = "/items/" + item.group(1);
+            remove(key -> key.getPath().endsWith(itemPath) || key.isSearch() || key.isRequest());
+        } else if (path.endsWith("/items")) {
+            remove(key -> key.isSearch() || key.isRequest());
+        } else if (path.contains("/bookings")) {
+            remove(key -> ITEM.matcher(key.getPath()).matches());
+        } else if (path.endsWith("/requests")) {
+            remove(Key::isRequest);
+        } else if (path.contains("/users") && method != HttpMethod.POST) {
+            remove(key -> true);
+        }
+    }
+
+    private void remove(Predicate<Key> affected) {
+        pending.asMap().keySet().removeIf(affected);
+        responses.asMap().keySet().removeIf(affected);
+    }
+
+    private static byte[] read(Resource body) {
+        try (InputStream in = body.getInputStream()) {
+            return StreamUtils.copyToByteArray(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Адрес запроса вместе с параметрами и, если ответ зависит от пользователя, его id.
+     */
+    @Value
+    public static class Key {
+        String path;
+
+        String uri;
+
+        @Nullable
+        Long userId;
+
+        public Key(URI uri, @Nullable Long userId) {
+            this.path = uri.getPath();
+            this.uri = uri.toString();
+            this.userId = userId;
+        }
+
+        boolean isSearch() {
+            return path.endsWith("/items/search");
+        }
+
+        boolean isRequest() {
+            return path.contains("/requests");
+        }
+    }
+}
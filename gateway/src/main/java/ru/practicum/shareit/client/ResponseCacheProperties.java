@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.response-cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+
+    // Сколько ответов держать, лишние вытесняются по частоте и давности обращений
+    private long maxSize = 10_000;
+
+    // Сколько хранить ответ. Ограничивает устаревание того, что меняется без запросов через шлюз,
+    // например последнего и следующего бронирования вещи со временем
+    private Duration ttl = Duration.ofSeconds(30);
+}
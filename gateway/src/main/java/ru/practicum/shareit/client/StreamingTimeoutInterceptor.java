@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Тайм-аут для потоковых ответов шлюза. Через Callable в шлюзе обрабатываются только {@link StreamingResponseBody}:
+ * ответы Mono идут через DeferredResult и по-прежнему ограничены {@code spring.mvc.async.request-timeout}.
+ */
+public class StreamingTimeoutInterceptor implements CallableProcessingInterceptor {
+    private final Duration timeout;
+
+    public StreamingTimeoutInterceptor(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (request instanceof AsyncWebRequest) {
+            ((AsyncWebRequest) request).setTimeout(timeout.toMillis());
+        }
+    }
+}
@@ -2,10 +2,12 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -21,26 +23,30 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @Valid @RequestBody ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @Valid @RequestBody ItemRequestDto itemRequestDto) {
         return itemRequestClient.createItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestClient.getOwnItemRequests(userId);
+    public Mono<ResponseEntity<Object>> getOwnItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                           @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size) {
+        return itemRequestClient.getOwnItemRequests(userId, from, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                            @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size) {
+    public Mono<ResponseEntity<Object>> getItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                        @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size) {
         return itemRequestClient.getItemRequests(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                     @PathVariable Long requestId) {
-        return itemRequestClient.getItemRequestById(userId, requestId);
+    public Mono<ResponseEntity<Object>> getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @PathVariable Long requestId,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                           String ifNoneMatch) {
+        return itemRequestClient.getItemRequestById(userId, requestId, ifNoneMatch);
     }
 }
@@ -2,46 +2,66 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exception.ValidateException;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
 @Controller
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Validated(ValidateException.OnCreate.class) @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Validated(ValidateException.OnCreate.class) @RequestBody UserDto userDto) {
         log.info("Добавлен пользователь: {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@Validated(ValidateException.OnUpdate.class) @RequestBody UserDto userDto,
-                                             @PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> updateUser(@Validated(ValidateException.OnUpdate.class) @RequestBody UserDto userDto,
+                                                   @PathVariable Long userId) {
         log.info("Обновление данных пользователя c id: {}", userId);
         userDto.setId(userId);
         return userClient.updateUser(userDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
-        return userClient.getAllUsers();
+    public Mono<ResponseEntity<Object>> getUsers(@RequestParam(required = false) @Min(0) Long afterId,
+                                                 @RequestParam(required = false) @Min(1) @Max(100) Integer size) {
+        if (afterId == null && size == null) {
+            return userClient.getAllUsers();
+        }
+        return userClient.getUsers(afterId == null ? 0L : afterId, size == null ? DEFAULT_PAGE_SIZE : size);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userClient::streamUsers);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long id) {
         return userClient.getUserById(id);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
         log.info("Пользователь был удален из списка по id: {}", userId);
         return userClient.deleteUser(userId);
     }
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.HttpClientProperties;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Выгрузка через шлюз: свой тайм-аут вместо общего для ответов Mono и освобождение ответа сервера, если запрос
+ * к шлюзу завершился раньше, чем сервер дослал тело.
+ */
+@WebMvcTest(BookingController.class)
+@Import({HttpClientConfig.class, BookingExportTest.ServerConfig.class})
+class BookingExportTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HangingBody body;
+
+    @Test
+    void exportUsesStreamTimeoutAndReleasesServerResponseTest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        assertThat(asyncContext.getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        asyncContext.complete();
+
+        assertThat(body.closed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @TestConfiguration
+    static class ServerConfig {
+        @Bean
+        HangingBody hangingBody() {
+            return new HangingBody();
+        }
+
+        @Bean
+        BookingClient bookingClient(HangingBody body, HttpClientProperties properties) {
+            return new BookingClient("http://shareit-server", new RestTemplateBuilder(), (uri, method) -> {
+                MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+                MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK);
+                response.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+                request.setResponse(response);
+                return request;
+            }, WebClient.builder(), properties, null);
+        }
+    }
+
+    /**
+     * Тело ответа сервера, которое не приходит, пока его не закроют. Как и чтение из сокета, не прерывается
+     * через interrupt, которым Spring отменяет задачу по тайм-ауту.
+     */
+    static class HangingBody extends InputStream {
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public int read() throws IOException {
+            boolean interrupted = false;
+            while (closed.getCount() > 0) {
+                try {
+                    closed.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Соединение закрыто");
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.client;
+
+import com.sun.management.ThreadMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Сравнивает проксирование списка вещей через шлюз с разбором ответа в Object и без него.
+ * Запрос проходит контроллер шлюза и клиент целиком, сервер подменен MockRestServiceServer,
+ * так что разница между режимами — это только разбор и повторная сериализация JSON.
+ */
+@Slf4j
+class BaseClientPassthroughTest {
+    private static final String SERVER_URL = "http://shareit-server";
+
+    private static final String ITEMS_URL = SERVER_URL + "/items?from=0&size=20";
+
+    private static final int ITEMS = 1000;
+
+    private static final int WARMUP = 100;
+
+    private static final int ITERATIONS = 200;
+
+    private static final String ITEMS_JSON = IntStream.rangeClosed(1, ITEMS)
+            .mapToObj(i -> "{\"id\":" + i + ",\"name\":\"item " + i + "\",\"description\":\"description " + i
+                    + "\",\"available\":true,\"requestId\":null,\"rating\":4.50}")
+            .collect(Collectors.joining(",", "[", "]"));
+
+    @Test
+    void passthroughReturnsServerBytesAndHeadersTest() throws Exception {
+        MockMvc mockMvc = gateway(true, withSuccess(ITEMS_JSON, MediaType.APPLICATION_JSON)
+                .headers(nextCursor("next")));
+
+        mockMvc.perform(asyncDispatch(getItems(mockMvc)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(ITEMS_JSON.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(result -> assertThat(result.getResponse().getHeader("X-Next-Cursor")).isEqualTo("next"));
+    }
+
+    @Test
+    void passthroughReturnsServerErrorTest() throws Exception {
+        String error = "{\"error\":\"Пользователя с id = 1 не существует.\"}";
+        MockMvc mockMvc = gateway(true, withStatus(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error));
+
+        mockMvc.perform(asyncDispatch(getItems(mockMvc)))
+                .andExpect(status().isNotFound())
+                .andExpect(content().bytes(error.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void objectModeRewritesBodyTest() throws Exception {
+        MockMvc mockMvc = gateway(false, withSuccess(ITEMS_JSON, MediaType.APPLICATION_JSON));
+
+        mockMvc.perform(asyncDispatch(getItems(mockMvc)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(ITEMS_JSON, true))
+                .andExpect(result -> assertThat(result.getResponse().getContentAsString())
+                        .isNotEqualTo(ITEMS_JSON)
+                        .contains("\"rating\":4.5}"));
+    }
+
+    @Test
+    void passthroughBenchmarkTest() throws Exception {
+        Measurement object = measure(false);
+        Measurement passthrough = measure(true);
+
+        log.info("Проксирование {} вещей ({} КиБ), {} запросов: Object — {} мкс и {} КиБ на запрос, "
+                        + "passthrough — {} мкс и {} КиБ на запрос",
+                ITEMS, ITEMS_JSON.length() / 1024, ITERATIONS,
+                object.micros, object.allocatedKib, passthrough.micros, passthrough.allocatedKib);
+        assertThat(passthrough.allocatedKib).isLessThan(object.allocatedKib);
+    }
+
+    private Measurement measure(boolean passthrough) throws Exception {
+        MockMvc mockMvc = gateway(passthrough, withSuccess(ITEMS_JSON, MediaType.APPLICATION_JSON));
+        for (int i = 0; i < WARMUP; i++) {
+            perform(mockMvc);
+        }
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            perform(mockMvc);
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measurement(elapsed / ITERATIONS / 1000, allocated / ITERATIONS / 1024);
+    }
+
+    private static void perform(MockMvc mockMvc) throws Exception {
+        MvcResult result = mockMvc.perform(asyncDispatch(getItems(mockMvc))).andReturn();
+        assertThat(result.getResponse().getContentAsByteArray()).isNotEmpty();
+    }
+
+    private static MvcResult getItems(MockMvc mockMvc) throws Exception {
+        return mockMvc.perform(get("/items").header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static HttpHeaders nextCursor(String cursor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", cursor);
+        return headers;
+    }
+
+    private static MockMvc gateway(boolean passthrough, ResponseCreator response) {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setPassthrough(passthrough);
+        ItemClient itemClient = new ItemClient(SERVER_URL, new RestTemplateBuilder(),
+                new SimpleClientHttpRequestFactory(), WebClient.builder(), properties, null);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(itemClient.rest).build();
+        server.expect(ExpectedCount.manyTimes(), requestTo(ITEMS_URL))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(response);
+        return MockMvcBuilders.standaloneSetup(new ItemController(itemClient)).build();
+    }
+
+    private static class Measurement {
+        private final long micros;
+
+        private final long allocatedKib;
+
+        private Measurement(long micros, long allocatedKib) {
+            this.micros = micros;
+            this.allocatedKib = allocatedKib;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ItemController.class)
+class CompletedMonoRegistrationsTest {
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"item\"}";
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void completedMonoIsWrittenWithoutAsyncTest() throws Exception {
+        when(itemClient.getItem(1L, 1L, null)).thenReturn(Mono.just(item()));
+
+        mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().json(ITEM_JSON, true));
+    }
+
+    @Test
+    void pendingMonoIsWrittenAsyncTest() throws Exception {
+        when(itemClient.getItem(1L, 1L, null)).thenReturn(Mono.delay(Duration.ofMillis(10)).map(tick -> item()));
+
+        MvcResult result = mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json(ITEM_JSON, true));
+    }
+
+    private static ResponseEntity<Object> item() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ITEM_JSON.getBytes(StandardCharsets.UTF_8));
+    }
+}
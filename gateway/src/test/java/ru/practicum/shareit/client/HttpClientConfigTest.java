@@ -0,0 +1,80 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpClientConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(HttpClientConfig.class)
+            .withBean(SimpleMeterRegistry.class);
+
+    @Test
+    void defaultPoolAndTimeoutsTest() {
+        contextRunner.run(context -> {
+            PoolingHttpClientConnectionManager connectionManager =
+                    context.getBean(PoolingHttpClientConnectionManager.class);
+            assertThat(connectionManager.getMaxTotal()).isEqualTo(200);
+            assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(200);
+            assertThat(connectionManager.getValidateAfterInactivity()).isEqualTo(2000);
+
+            RequestConfig requestConfig = requestConfig(context.getBean(CloseableHttpClient.class));
+            assertThat(requestConfig.getConnectTimeout()).isEqualTo(2000);
+            assertThat(requestConfig.getSocketTimeout()).isEqualTo(30000);
+            assertThat(requestConfig.getConnectionRequestTimeout()).isEqualTo(2000);
+
+            HttpClientProperties properties = context.getBean(HttpClientProperties.class);
+            assertThat(properties.isPassthrough()).isTrue();
+            assertThat(properties.isReactive()).isFalse();
+            assertThat(properties.getMaxInMemorySize()).isEqualTo(DataSize.ofMegabytes(16));
+            assertThat(properties.getStreamTimeout()).isEqualTo(Duration.ofMinutes(30));
+        });
+    }
+
+    @Test
+    void configuredPoolAndTimeoutsTest() {
+        contextRunner.withPropertyValues(
+                "shareit-server.http-client.max-connections=50",
+                "shareit-server.http-client.max-connections-per-route=20",
+                "shareit-server.http-client.validate-after-inactivity=500ms",
+                "shareit-server.http-client.connect-timeout=1s",
+                "shareit-server.http-client.read-timeout=5s",
+                "shareit-server.http-client.stream-timeout=1h",
+                "shareit-server.http-client.connection-request-timeout=300ms",
+                "shareit-server.http-client.keep-alive=10s",
+                "shareit-server.http-client.max-idle-time=15s",
+                "shareit-server.http-client.max-in-memory-size=1MB"
+        ).run(context -> {
+            PoolingHttpClientConnectionManager connectionManager =
+                    context.getBean(PoolingHttpClientConnectionManager.class);
+            assertThat(connectionManager.getMaxTotal()).isEqualTo(50);
+            assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(20);
+            assertThat(connectionManager.getValidateAfterInactivity()).isEqualTo(500);
+
+            RequestConfig requestConfig = requestConfig(context.getBean(CloseableHttpClient.class));
+            assertThat(requestConfig.getConnectTimeout()).isEqualTo(1000);
+            assertThat(requestConfig.getSocketTimeout()).isEqualTo(5000);
+            assertThat(requestConfig.getConnectionRequestTimeout()).isEqualTo(300);
+
+            HttpClientProperties properties = context.getBean(HttpClientProperties.class);
+            assertThat(properties.getKeepAlive()).isEqualTo(Duration.ofSeconds(10));
+            assertThat(properties.getMaxIdleTime()).isEqualTo(Duration.ofSeconds(15));
+            assertThat(properties.getMaxInMemorySize()).isEqualTo(DataSize.ofMegabytes(1));
+            assertThat(properties.getStreamTimeout()).isEqualTo(Duration.ofHours(1));
+        });
+    }
+
+    private static RequestConfig requestConfig(CloseableHttpClient httpClient) {
+        assertThat(httpClient).isInstanceOf(Configurable.class);
+        return ((Configurable) httpClient).getConfig();
+    }
+}
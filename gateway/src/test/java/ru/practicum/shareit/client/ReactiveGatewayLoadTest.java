@@ -0,0 +1,137 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный тест неблокирующего режима шлюза. Заглушка сервера отвечает с задержкой {@value #LATENCY_MS} мс,
+ * у шлюза {@value #GATEWAY_THREADS} потоков сервлета. Если бы поток держался до ответа сервера,
+ * одновременно до заглушки доходило бы не больше {@value #GATEWAY_THREADS} запросов,
+ * а {@value #REQUESTS} запросов шли бы не меньше {@code REQUESTS / GATEWAY_THREADS * LATENCY_MS} мс.
+ * Сколько запросов окажется на заглушке одновременно сверх этого, зависит уже от процессора.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.http-client.reactive=true",
+        "server.tomcat.threads.max=" + ReactiveGatewayLoadTest.GATEWAY_THREADS,
+        "server.tomcat.threads.min-spare=" + ReactiveGatewayLoadTest.GATEWAY_THREADS
+})
+class ReactiveGatewayLoadTest {
+    static final int GATEWAY_THREADS = 8;
+
+    private static final int REQUESTS = 300;
+
+    private static final long LATENCY_MS = 500;
+
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"item\",\"description\":\"description\","
+            + "\"available\":true}";
+
+    // Больше 256 КиБ, которые WebClient по умолчанию собирает в памяти
+    private static final String LARGE_JSON = Collections.nCopies(4000, ITEM_JSON).stream()
+            .collect(Collectors.joining(",", "[", "]"));
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private static final DisposableServer server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/items/1", (request, response) -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendString(Mono.delay(Duration.ofMillis(LATENCY_MS))
+                                .map(tick -> ITEM_JSON)
+                                .doFinally(signal -> inFlight.decrementAndGet()));
+            }).get("/items/2", (request, response) -> response
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .sendString(Mono.just(LARGE_JSON))))
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void concurrentRequestsDoNotHoldServletThreadsTest() {
+        ConnectionProvider connections = ConnectionProvider.builder("load-test")
+                .maxConnections(REQUESTS)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+
+        long startedAt = System.nanoTime();
+        List<ResponseEntity<String>> responses = Flux.range(0, REQUESTS)
+                .flatMap(i -> client.get()
+                        .uri("/items/1")
+                        .header("X-Sharer-User-Id", "1")
+                        .retrieve()
+                        .toEntity(String.class), REQUESTS)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        connections.disposeLater().block();
+
+        log.info("{} запросов через шлюз с {} потоками: {} мс, одновременно на сервере до {} запросов",
+                REQUESTS, GATEWAY_THREADS, elapsedMs, maxInFlight.get());
+        assertThat(responses).hasSize(REQUESTS)
+                .allSatisfy(response -> {
+                    assertThat(response.getStatusCodeValue()).isEqualTo(200);
+                    assertThat(response.getBody()).isEqualTo(ITEM_JSON);
+                });
+        assertThat(maxInFlight.get()).isGreaterThan(GATEWAY_THREADS);
+    }
+
+    @Test
+    void largeResponseIsProxiedTest() {
+        ResponseEntity<byte[]> response = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build()
+                .get()
+                .uri("/items/2")
+                .header("X-Sharer-User-Id", "1")
+                .retrieve()
+                .toEntity(byte[].class)
+                .block(Duration.ofSeconds(10));
+
+        assertThat(LARGE_JSON.length()).isGreaterThan(256 * 1024);
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo(LARGE_JSON.getBytes(StandardCharsets.UTF_8));
+    }
+}
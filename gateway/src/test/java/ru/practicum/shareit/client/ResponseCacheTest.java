@@ -0,0 +1,239 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequestClient;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ResponseCacheTest {
+    private static final String SERVER_URL = "http://shareit-server";
+
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"item\"}";
+
+    private MeterRegistry meterRegistry;
+
+    private ResponseCache cache;
+
+    private ItemClient itemClient;
+
+    private ItemRequestClient itemRequestClient;
+
+    private BookingClient bookingClient;
+
+    private MockRestServiceServer items;
+
+    private MockRestServiceServer requests;
+
+    private MockRestServiceServer bookings;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ResponseCache(new ResponseCacheProperties(), meterRegistry);
+        HttpClientProperties properties = new HttpClientProperties();
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        itemClient = new ItemClient(SERVER_URL, new RestTemplateBuilder(), requestFactory, WebClient.builder(),
+                properties, cache);
+        itemRequestClient = new ItemRequestClient(SERVER_URL, new RestTemplateBuilder(), requestFactory,
+                WebClient.builder(), properties, cache);
+        bookingClient = new BookingClient(SERVER_URL, new RestTemplateBuilder(), requestFactory, WebClient.builder(),
+                properties, cache);
+        items = MockRestServiceServer.bindTo(itemClient.rest).ignoreExpectOrder(true).build();
+        requests = MockRestServiceServer.bindTo(itemRequestClient.rest).build();
+        bookings = MockRestServiceServer.bindTo(bookingClient.rest).build();
+    }
+
+    @Test
+    void itemIsCachedPerUserTest() {
+        items.expect(once(), requestTo(SERVER_URL + "/items/1"))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON));
+        items.expect(once(), requestTo(SERVER_URL + "/items/1"))
+                .andExpect(header("X-Sharer-User-Id", "2"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON));
+
+        assertThat(body(itemClient.getItem(1L, 1L, null).block())).isEqualTo(ITEM_JSON);
+        assertThat(body(itemClient.getItem(1L, 1L, null).block())).isEqualTo(ITEM_JSON);
+        assertThat(body(itemClient.getItem(1L, 2L, null).block())).isEqualTo(ITEM_JSON);
+
+        items.verify();
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.hit.ratio").gauge().value()).isEqualTo(1.0 / 3);
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", "gateway-responses").meter()).isNotNull();
+    }
+
+    @Test
+    void searchIsSharedBetweenUsersTest() {
+        items.expect(once(), requestTo(SERVER_URL + "/items/search?text=drill&mode=text&from=0&size=20"))
+                .andRespond(withSuccess("[" + ITEM_JSON + "]", MediaType.APPLICATION_JSON));
+
+        itemClient.searchText(1L, "drill", "text", 0, 20).block();
+        ResponseEntity<Object> response = itemClient.searchText(2L, "drill", "text", 0, 20).block();
+
+        items.verify();
+        assertThat(body(response)).isEqualTo("[" + ITEM_JSON + "]");
+    }
+
+    @Test
+    void updateItemInvalidatesItemAndSearchTest() {
+        items.expect(times(2), requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON));
+        items.expect(times(2), requestTo(SERVER_URL + "/items/search?text=item&mode=text&from=0&size=20"))
+                .andRespond(withSuccess("[" + ITEM_JSON + "]", MediaType.APPLICATION_JSON));
+        items.expect(once(), requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON));
+
+        itemClient.getItem(1L, 1L, null).block();
+        itemClient.searchText(1L, "item", "text", 0, 20).block();
+        itemClient.updateItem(1L, ItemDto.builder().id(1L).name("new").build()).block();
+        itemClient.getItem(1L, 1L, null).block();
+        itemClient.searchText(1L, "item", "text", 0, 20).block();
+
+        items.verify();
+    }
+
+    @Test
+    void bookingInvalidatesItemsButNotRequestsTest() {
+        items.expect(times(2), requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON));
+        requests.expect(once(), requestTo(SERVER_URL + "/requests/1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        bookings.expect(once(), requestTo(SERVER_URL + "/bookings"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        itemClient.getItem(1L, 1L, null).block();
+        itemRequestClient.getItemRequestById(1L, 1L, null).block();
+        bookingClient.bookItem(2L, new BookItemRequestDto(1L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2))).block();
+        itemClient.getItem(1L, 1L, null).block();
+        itemRequestClient.getItemRequestById(1L, 1L, null).block();
+
+        items.verify();
+        requests.verify();
+        bookings.verify();
+    }
+
+    @Test
+    void failedUpdateInvalidatesItemTest() {
+        items.expect(times(2), requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON));
+        items.expect(once(), requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withException(new SocketTimeoutException("Read timed out")));
+
+        itemClient.getItem(1L, 1L, null).block();
+        assertThrows(ResourceAccessException.class,
+                () -> itemClient.updateItem(1L, ItemDto.builder().id(1L).name("new").build()));
+        itemClient.getItem(1L, 1L, null).block();
+
+        items.verify();
+    }
+
+    @Test
+    void responseRequestedBeforeInvalidationIsNotCachedTest() {
+        ResponseCache.Key key = new ResponseCache.Key(URI.create(SERVER_URL + "/items/1"), 1L);
+        long stamp = cache.begin(key);
+        cache.invalidate(HttpMethod.PATCH, URI.create(SERVER_URL + "/items/1"));
+        cache.put(key, stamp, ResponseEntity.ok(ITEM_JSON.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    void unrelatedInvalidationKeepsResponseTest() {
+        ResponseCache.Key key = new ResponseCache.Key(URI.create(SERVER_URL + "/items/1"), 1L);
+        long stamp = cache.begin(key);
+        cache.invalidate(HttpMethod.PATCH, URI.create(SERVER_URL + "/items/2"));
+        cache.put(key, stamp, ResponseEntity.ok(ITEM_JSON.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(cache.get(key)).isNotNull();
+    }
+
+    @Test
+    void cachedItemAnswersNotModifiedTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"1.0\"");
+        items.expect(once(), requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(headers));
+
+        itemClient.getItem(1L, 1L, null).block();
+        ResponseEntity<Object> notModified = itemClient.getItem(1L, 1L, "W/\"0.9\", \"1.0\"").block();
+        ResponseEntity<Object> changed = itemClient.getItem(1L, 1L, "\"0.9\"").block();
+
+        items.verify();
+        assertThat(notModified.getStatusCodeValue()).isEqualTo(304);
+        assertThat(notModified.getHeaders().getETag()).isEqualTo("\"1.0\"");
+        assertThat(notModified.getBody()).isNull();
+        assertThat(body(changed)).isEqualTo(ITEM_JSON);
+    }
+
+    @Test
+    void serverNotModifiedIsForwardedAndNotCachedTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"1.0\"");
+        requests.expect(times(2), requestTo(SERVER_URL + "/requests/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"1.0\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(headers));
+
+        ResponseEntity<Object> response = itemRequestClient.getItemRequestById(1L, 1L, "\"1.0\"").block();
+        itemRequestClient.getItemRequestById(1L, 1L, "\"1.0\"").block();
+
+        requests.verify();
+        assertThat(response.getStatusCodeValue()).isEqualTo(304);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1.0\"");
+    }
+
+    @Test
+    void errorIsNotCachedTest() {
+        items.expect(times(2), requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"not found\"}"));
+
+        assertThat(itemClient.getItem(1L, 1L, null).block().getStatusCodeValue()).isEqualTo(404);
+        assertThat(itemClient.getItem(1L, 1L, null).block().getStatusCodeValue()).isEqualTo(404);
+
+        items.verify();
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        assertThat(response.getBody()).isInstanceOf(byte[].class);
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
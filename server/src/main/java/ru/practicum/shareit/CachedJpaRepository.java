@@ -0,0 +1,29 @@
+package ru.practicum.shareit;
+
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Базовая реализация репозиториев приложения, дает {@link CachedRepository#isPresent} доступ
+ * к кэшу второго уровня.
+ */
+public class CachedJpaRepository<T, I> extends SimpleJpaRepository<T, I> {
+    private final JpaEntityInformation<T, ?> entityInformation;
+
+    private final EntityManager entityManager;
+
+    public CachedJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
+    }
+
+    public boolean isPresent(I id) {
+        if (entityManager.getEntityManagerFactory().getCache().contains(entityInformation.getJavaType(), id)) {
+            return findById(id).isPresent();
+        }
+        return existsById(id);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Репозиторий сущности из кэша второго уровня.
+ */
+@NoRepositoryBean
+public interface CachedRepository<T, ID> extends JpaRepository<T, ID> {
+    /**
+     * Проверяет существование сущности для предусловий сервисов. Сущность из кэша второго уровня берется
+     * без обращения к базе, иначе выполняется {@code existsById}, который не загружает строку целиком.
+     * Реализация в {@link CachedJpaRepository}.
+     */
+    boolean isPresent(ID id);
+}
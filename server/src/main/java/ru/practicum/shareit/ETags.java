@@ -0,0 +1,55 @@
+package ru.practicum.shareit;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Разбор заголовка If-None-Match (RFC 7232, раздел 3.2). Сервер выдает только сильные теги из цифр и букв,
+ * поэтому префикс W/ отбрасывается и теги сравниваются по значению. На {@code *} отдается полный ответ.
+ */
+@UtilityClass
+public class ETags {
+    // Представление вещи и доступ к бронированию зависят от пользователя
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    /**
+     * Возвращает первый тег из заголовка, который {@code isCurrent} признает актуальным, без кавычек.
+     */
+    public static Optional<String> findMatching(String ifNoneMatch, Predicate<String> isCurrent) {
+        if (ifNoneMatch == null) {
+            return Optional.empty();
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+                if (isCurrent.test(value)) {
+                    return Optional.of(value);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static <T> ResponseEntity<T> ok(T body, String tag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(USER_HEADER);
+        if (tag != null) {
+            response.eTag(tag);
+        }
+        return response.body(body);
+    }
+
+    public static <T> ResponseEntity<T> notModified(String tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .varyBy(USER_HEADER)
+                .eTag(tag)
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Пишет объекты в формате NDJSON: JSON на строку, каждая строка, включая последнюю, заканчивается {@code \n}.
+ * Без объектов тело остается пустым. Закрытие дописывает буфер, но не закрывает сам поток ответа.
+ */
+public class NdjsonWriter implements Closeable {
+    private final OutputStream out;
+
+    private final SequenceWriter writer;
+
+    private boolean empty = true;
+
+    public NdjsonWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.out = out;
+        this.writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out);
+    }
+
+    public void write(Object value) throws IOException {
+        writer.write(value);
+        empty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+        if (!empty) {
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit;
+
+/**
+ * Репозиторий сущности с {@code @Version}, версия которой служит ETag ответа.
+ */
+public interface VersionedRepository<T> {
+    /**
+     * Увеличивает версию сущности при фиксации транзакции, даже если ее поля не менялись. Так ETag меняется
+     * вместе с тем, что попадает в ответ из связанных таблиц. Вызывается внутри транзакции для управляемой сущности.
+     */
+    void touch(T entity);
+}
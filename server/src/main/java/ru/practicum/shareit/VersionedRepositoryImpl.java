@@ -0,0 +1,31 @@
+package ru.practicum.shareit;
+
+import org.hibernate.Hibernate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+
+public class VersionedRepositoryImpl<T> implements VersionedRepository<T> {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Hibernate увеличивает версию отдельным update в обход кэша второго уровня, поэтому после завершения
+     * транзакции запись сущности из кэша удаляется и следующее чтение берет новую версию из базы.
+     */
+    @Override
+    public void touch(T entity) {
+        entityManager.lock(entity, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        Class<?> type = Hibernate.getClass(entity);
+        Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                entityManager.getEntityManagerFactory().getCache().evict(type, id);
+            }
+        });
+    }
+}
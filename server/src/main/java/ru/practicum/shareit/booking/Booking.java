@@ -8,6 +8,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 /**
@@ -21,6 +22,12 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "bookings", schema = "public")
 public class Booking {
+    /**
+     * Самое длинное бронирование. Бронирование, пересекающее момент t, начинается не раньше t - MAX_DURATION,
+     * поэтому поиск пересечений читает индекс по началу в ограниченном диапазоне, а не всю историю вещи.
+     */
+    public static final Duration MAX_DURATION = Duration.ofDays(365);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,12 +35,14 @@ public class Booking {
     private LocalDateTime start;
     @Column(name = "end_date", nullable = false)
     private LocalDateTime end;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", nullable = false)
     private User booker;
     @Enumerated(EnumType.STRING)
     private Status status; // WAITING, APPROVED, REJECTED, CANCELED
+    @Version
+    private Long version;
 }
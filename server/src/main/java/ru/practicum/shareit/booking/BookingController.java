@@ -1,9 +1,19 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.ETags;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.export.BookingExportWriter;
+import ru.practicum.shareit.booking.export.ExportFormat;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import javax.validation.Valid;
@@ -12,7 +22,10 @@ import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * TODO Sprint add-bookings.
@@ -22,8 +35,12 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     public BookingDto createBooking(@Valid @RequestBody BookingDto bookingDto,
                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -37,30 +54,88 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public BookingDto getBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId) {
-
-        return bookingService.getBooking(userId, bookingId);
+    public ResponseEntity<BookingDto> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @PathVariable Long bookingId,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                 String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> tag = bookingService.getMatchingBookingTag(userId, bookingId, ifNoneMatch);
+            if (tag.isPresent()) {
+                return ETags.notModified(tag.get());
+            }
+        }
+        BookingDto booking = bookingService.getBooking(userId, bookingId);
+        return ETags.ok(booking, booking.getTag());
     }
 
     @GetMapping
-    public List<BookingDto> getBookingsOfUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(defaultValue = "ALL") String state,
-                                              @RequestParam(defaultValue = "0") @Min(0) @PositiveOrZero Integer from,
-                                              @RequestParam(defaultValue = "10") @Min(1) @Max(100) @Positive Integer size) {
+    public ResponseEntity<List<BookingDto>> getBookingsOfUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              @RequestParam(defaultValue = "ALL") String state,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "0") @Min(0) @PositiveOrZero Integer from,
+                                                              @RequestParam(defaultValue = "10") @Min(1) @Max(100) @Positive Integer size) {
         if (from < 0 || size < 1) {
             throw new ValidationException("Переданы неверные параметры.");
         }
-        return bookingService.getBookingsOfUser(userId, state, PageRequest.of(from / size, size));
+        if (cursor != null) {
+            return withNextCursor(bookingService.getBookingsOfUser(userId, state, BookingCursor.decode(cursor), size));
+        }
+        return ResponseEntity.ok(bookingService.getBookingsOfUser(userId, state, PageRequest.of(from / size, size)));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsByItemOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(defaultValue = "ALL") String state,
-                                                   @RequestParam(defaultValue = "0") @Min(0) @PositiveOrZero Integer from,
-                                                   @RequestParam(defaultValue = "10") @Min(1) @Max(100) @Positive Integer size) {
+    public ResponseEntity<List<BookingDto>> getBookingsByItemOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "0") @Min(0) @PositiveOrZero Integer from,
+                                                                   @RequestParam(defaultValue = "10") @Min(1) @Max(100) @Positive Integer size) {
         if (from < 0 || size < 1) {
             throw new ValidationException("Переданы неверные параметры.");
         }
-        return bookingService.getBookingsByItemOwner(userId, state, PageRequest.of(from / size, size));
+        if (cursor != null) {
+            return withNextCursor(bookingService.getBookingsByItemOwner(userId, state, BookingCursor.decode(cursor), size));
+        }
+        return ResponseEntity.ok(bookingService.getBookingsByItemOwner(userId, state, PageRequest.of(from / size, size)));
+    }
+
+    /**
+     * Выгрузка всех бронирований вещей владельца в формате {@code ndjson} или {@code csv}.
+     * Строки пишутся в ответ по мере чтения из базы, поэтому параметры проверяются до начала ответа.
+     */
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByItemOwner(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        bookingService.checkBookingsByItemOwner(userId, state);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportFormat.getFileName())
+                        .build()
+                        .toString())
+                .body(out -> {
+                    try (BookingExportWriter writer = exportFormat.open(out, objectMapper)) {
+                        bookingService.exportBookingsByItemOwner(userId, state, booking -> write(writer, booking));
+                    }
+                });
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(Slice<BookingDto> bookings) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.hasNext()) {
+            List<BookingDto> content = bookings.getContent();
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.after(content.get(content.size() - 1)).encode());
+        }
+        return response.body(bookings.getContent());
+    }
+
+    private static void write(BookingExportWriter writer, BookingDto booking) {
+        try {
+            writer.write(booking);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Условие списка бронирований для {@link State}: допустимые статусы и строгие границы начала и конца.
+ * Неограниченная граница задается датой за пределами возможных бронирований, поэтому запрос один для всех состояний.
+ */
+@Value
+public class BookingFilter {
+    private static final LocalDateTime MIN = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    private static final LocalDateTime MAX = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final Set<Status> ANY_STATUS = EnumSet.allOf(Status.class);
+
+    Set<Status> statuses;
+
+    LocalDateTime startAfter;
+
+    LocalDateTime startBefore;
+
+    LocalDateTime endAfter;
+
+    LocalDateTime endBefore;
+
+    public static BookingFilter of(State state, LocalDateTime now) {
+        switch (state) {
+            case PAST:
+                return new BookingFilter(ANY_STATUS, MIN, MAX, MIN, now);
+            case FUTURE:
+                return new BookingFilter(ANY_STATUS, now, MAX, MIN, MAX);
+            case CURRENT:
+                return new BookingFilter(ANY_STATUS, MIN, now, now, MAX);
+            case WAITING:
+                return new BookingFilter(EnumSet.of(Status.WAITING), MIN, MAX, MIN, MAX);
+            case REJECTED:
+                return new BookingFilter(EnumSet.of(Status.REJECTED), MIN, MAX, MIN, MAX);
+            default:
+                return new BookingFilter(ANY_STATUS, MIN, MAX, MIN, MAX);
+        }
+    }
+}
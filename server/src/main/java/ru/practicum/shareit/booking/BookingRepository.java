@@ -1,37 +1,143 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
+import ru.practicum.shareit.booking.dto.BookingView;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBookerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable pageable);
+    /**
+     * Выборка строк списка бронирований. Вещь присоединяется ради названия, арендатор — только по внешнему ключу,
+     * так что владелец вещи, запрос и арендатор не загружаются.
+     */
+    String SELECT_VIEW = "select b.id as id, i.id as itemId, b.booker.id as bookerId, b.start as startDate, " +
+            "b.end as endDate, b.status as status, i.name as itemName from Booking as b join b.item as i ";
 
-    Page<Booking> findByBookerIdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
+    /**
+     * Условие {@link BookingFilter}, параметр запроса {@code filter}.
+     */
+    String FILTER = " and b.status in :#{#filter.statuses} and b.start > :#{#filter.startAfter} " +
+            "and b.start < :#{#filter.startBefore} and b.end > :#{#filter.endAfter} " +
+            "and b.end < :#{#filter.endBefore}";
 
-    Page<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, Status status, Pageable pageable);
+    /**
+     * Условие постраничного вывода по курсору: бронирования строго после (:cursorStart, :cursorId)
+     * в порядке убывания (start, id). Избыточное {@code b.start <= :cursorStart} позволяет базе
+     * начать чтение индекса сразу с нужной позиции вместо пропуска OFFSET строк.
+     */
+    String AFTER_CURSOR = " and b.start <= :cursorStart and (b.start < :cursorStart or b.id < :cursorId) " +
+            "order by b.start desc, b.id desc";
 
-    Page<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start,
-                                                                 LocalDateTime end, Pageable pageable);
+    /**
+     * Выгрузка читает бронирования курсором базы порциями по {@value #EXPORT_FETCH_SIZE} строк, а не страницами.
+     * Потоки нужно закрывать и читать внутри транзакции.
+     */
+    String EXPORT_FETCH_SIZE = "500";
 
-    Page<Booking> findByItemOwnerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable pageable);
+    String EXPORT_ORDER = " order by b.start desc, b.id desc";
 
-    Page<Booking> findByItemOwnerIdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start,
-                                                                   Pageable pageable);
+    @Query(SELECT_VIEW + "where b.booker.id = :userId" + FILTER + " order by b.start desc")
+    Slice<BookingView> findByBookerId(@Param("userId") Long bookerId, @Param("filter") BookingFilter filter,
+                                      Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long bookerId, Status status, Pageable pageable);
+    @Query(SELECT_VIEW + "where i.owner.id = :userId" + FILTER + " order by b.start desc")
+    Slice<BookingView> findByItemOwnerId(@Param("userId") Long ownerId, @Param("filter") BookingFilter filter,
+                                         Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start,
-                                                                 LocalDateTime end, Pageable pageable);
+    @Query("select b from Booking as b join fetch b.item where b.id = ?1")
+    Optional<Booking> findByIdWithItem(Long id);
 
-    Page<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
+    /**
+     * Данные для проверки If-None-Match: только версии и id участников, без загрузки сущностей.
+     */
+    @Query("select b.version as version, i.version as itemVersion, b.booker.id as bookerId, " +
+            "i.owner.id as ownerId from Booking as b join b.item as i where b.id = ?1")
+    Optional<BookingVersionView> findVersionById(Long id);
 
     List<Booking> findBookingByItem_Id(Long itemId);
 
     List<Booking> findBookingByItem_IdAndStatus(Long itemId, Status status);
 
-    Page<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
+    /**
+     * Бронирования вещи с указанными статусами, пересекающиеся с [from, to), по возрастанию начала.
+     * Начало ограничено снизу {@link Booking#MAX_DURATION}, так что запрос читает индекс
+     * (item_id, status, start_date) только в диапазоне (from - MAX_DURATION, to).
+     */
+    default List<BookingShortView> findBusyIntervals(Long itemId, Collection<Status> statuses, LocalDateTime from,
+                                                     LocalDateTime to) {
+        return findBusyIntervals(itemId, statuses, from.minus(Booking.MAX_DURATION), from, to);
+    }
+
+    @Query("select b.id as id, b.item.id as itemId, b.booker.id as bookerId, b.start as startDate, " +
+            "b.end as endDate, b.status as status from Booking as b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.start > ?3 and b.start < ?5 and b.end > ?4 " +
+            "order by b.start, b.id")
+    List<BookingShortView> findBusyIntervals(Long itemId, Collection<Status> statuses, LocalDateTime startAfter,
+                                             LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Есть ли бронирование вещи с указанными статусами, пересекающееся с [start, end). Диапазон по началу
+     * ограничен так же, как в {@link #findBusyIntervals(Long, Collection, LocalDateTime, LocalDateTime)}.
+     */
+    default boolean existsOverlapping(Long itemId, Collection<Status> statuses, LocalDateTime start,
+                                      LocalDateTime end) {
+        return existsOverlapping(itemId, statuses, start.minus(Booking.MAX_DURATION), start, end);
+    }
+
+    @Query("select case when count(b) > 0 then true else false end from Booking as b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.start > ?3 and b.start < ?5 and b.end > ?4")
+    boolean existsOverlapping(Long itemId, Collection<Status> statuses, LocalDateTime startAfter,
+                              LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Для каждой вещи возвращает не более двух подтверждённых бронирований: ближайшее начавшееся до {@code now}
+     * и ближайшее начинающееся после {@code now}. Выбор выполняется в базе, история бронирований не загружается.
+     */
+    @Query(value = "select id, itemId, bookerId, startDate, endDate, status from (" +
+            "select b.id as id, b.item_id as itemId, b.booker_id as bookerId, b.start_date as startDate, " +
+            "b.end_date as endDate, b.status as status, " +
+            "row_number() over (partition by b.item_id order by b.start_date desc) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date < :now) as last_bookings " +
+            "where rn = 1 " +
+            "union all " +
+            "select id, itemId, bookerId, startDate, endDate, status from (" +
+            "select b.id as id, b.item_id as itemId, b.booker_id as bookerId, b.start_date as startDate, " +
+            "b.end_date as endDate, b.status as status, " +
+            "row_number() over (partition by b.item_id order by b.start_date asc) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date > :now) as next_bookings " +
+            "where rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastAndNextBookings(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("now") LocalDateTime now);
+
+    @Query(SELECT_VIEW + "where b.booker.id = :userId" + FILTER + AFTER_CURSOR)
+    Slice<BookingView> findByBookerIdAfterCursor(@Param("userId") Long bookerId,
+                                                 @Param("filter") BookingFilter filter,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where i.owner.id = :userId" + FILTER + AFTER_CURSOR)
+    Slice<BookingView> findByItemOwnerIdAfterCursor(@Param("userId") Long ownerId,
+                                                    @Param("filter") BookingFilter filter,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_VIEW + "where i.owner.id = :userId" + FILTER + EXPORT_ORDER)
+    Stream<BookingView> streamByItemOwnerId(@Param("userId") Long ownerId, @Param("filter") BookingFilter filter);
 }
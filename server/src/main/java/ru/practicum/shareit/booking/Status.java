@@ -1,8 +1,13 @@
 package ru.practicum.shareit.booking;
 
+import java.util.Set;
+
 public enum Status {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    // Статусы, при которых бронирование занимает вещь на свой интервал
+    public static final Set<Status> BLOCKING = Set.of(WAITING, APPROVED);
 }
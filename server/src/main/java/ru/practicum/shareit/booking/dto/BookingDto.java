@@ -1,12 +1,12 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import ru.practicum.shareit.booking.Status;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 
@@ -24,7 +24,11 @@ public class BookingDto {
     private Long bookerId;
     private LocalDateTime start;
     private LocalDateTime end;
-    private Item item;
-    private User booker;
+    private BookingItemDto item;
+    private BookerDto booker;
     private Status status; // WAITING, APPROVED, REJECTED, CANCELED
+    // ETag ответа GET /bookings/{id}, в теле не передается
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private String tag;
 }
@@ -10,13 +10,46 @@ public final class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(BookingItemDto.builder()
+                        .id(booking.getItem().getId())
+                        .name(booking.getItem().getName())
+                        .build())
+                .booker(BookerDto.builder()
+                        .id(booking.getBooker().getId())
+                        .build())
                 .bookerId(booking.getBooker().getId())
                 .status(booking.getStatus())
                 .build();
     }
 
+    public static BookingDto toBookingDto(BookingShortView booking) {
+        return BookingDto.builder()
+                .id(booking.getId())
+                .itemId(booking.getItemId())
+                .bookerId(booking.getBookerId())
+                .start(booking.getStartDate())
+                .end(booking.getEndDate())
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public static BookingDto toBookingDto(BookingView booking) {
+        return BookingDto.builder()
+                .id(booking.getId())
+                .start(booking.getStartDate())
+                .end(booking.getEndDate())
+                .item(BookingItemDto.builder()
+                        .id(booking.getItemId())
+                        .name(booking.getItemName())
+                        .build())
+                .booker(BookerDto.builder()
+                        .id(booking.getBookerId())
+                        .build())
+                .bookerId(booking.getBookerId())
+                .status(booking.getStatus())
+                .build();
+    }
+
     public static Booking toBooking(BookingDto bookingDto) {
         return Booking.builder()
                 .id(bookingDto.getId())
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+/**
+ * Версии бронирования и его вещи вместе с участниками, которым бронирование видно.
+ */
+public interface BookingVersionView {
+    Long getVersion();
+
+    Long getItemVersion();
+
+    Long getBookerId();
+
+    Long getOwnerId();
+}
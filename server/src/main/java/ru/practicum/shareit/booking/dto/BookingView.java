@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+/**
+ * Строка списка бронирований: поля самого бронирования, id и название вещи, id арендатора.
+ * Выбирается одним запросом без загрузки сущностей вещи, владельца и запроса.
+ */
+public interface BookingView extends BookingShortView {
+    String getItemName();
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.export;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Пишет бронирования в тело ответа по одному. Закрытие дописывает буфер, но не закрывает сам поток ответа.
+ */
+public interface BookingExportWriter extends Closeable {
+    void write(BookingDto booking) throws IOException;
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.NdjsonWriter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public enum ExportFormat {
+    // Объект JSON на строку, поля как в списках бронирований
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        public BookingExportWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            NdjsonWriter writer = new NdjsonWriter(out, objectMapper);
+            return new BookingExportWriter() {
+                @Override
+                public void write(BookingDto booking) throws IOException {
+                    writer.write(booking);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.close();
+                }
+            };
+        }
+    },
+    // Таблица с заголовком, строки через CRLF
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv") {
+        private static final String HEADER = "id,itemId,itemName,bookerId,start,end,status";
+
+        @Override
+        public BookingExportWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write("\r\n");
+            return new BookingExportWriter() {
+                @Override
+                public void write(BookingDto booking) throws IOException {
+                    writer.write(String.join(",",
+                            String.valueOf(booking.getId()),
+                            String.valueOf(booking.getItem().getId()),
+                            escape(booking.getItem().getName()),
+                            String.valueOf(booking.getBooker().getId()),
+                            booking.getStart().toString(),
+                            booking.getEnd().toString(),
+                            booking.getStatus().name()));
+                    writer.write("\r\n");
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.flush();
+                }
+            };
+        }
+    };
+
+    private final MediaType mediaType;
+
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileName() {
+        return "bookings." + extension;
+    }
+
+    public abstract BookingExportWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException;
+
+    public static ExportFormat from(String format) {
+        for (ExportFormat exportFormat : values()) {
+            if (exportFormat.name().equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new ValidationException("Unknown export format: " + format);
+    }
+
+    /**
+     * Поле CSV по RFC 4180: значение с запятой, кавычкой или переводом строки берется в кавычки,
+     * кавычки внутри удваиваются.
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
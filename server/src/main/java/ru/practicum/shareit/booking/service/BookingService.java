@@ -1,9 +1,13 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -13,10 +17,24 @@ public interface BookingService {
 
     BookingDto getBooking(Long userId, Long bookingId);
 
+    Optional<String> getMatchingBookingTag(Long userId, Long bookingId, String ifNoneMatch);
+    // Тег из If-None-Match, совпадающий с текущей версией бронирования и его вещи. Сущности не загружаются.
+
     List<BookingDto> getBookingsOfUser(Long userId, String state, Pageable pageable);
     // Получение списка всех бронирований текущего пользователя.
 
 
     List<BookingDto> getBookingsByItemOwner(Long userId, String state, Pageable pageable);
     // Получение списка бронирований для всех вещей текущего пользователя.
+
+    Slice<BookingDto> getBookingsOfUser(Long userId, String state, BookingCursor cursor, int size);
+    // То же, но страница начинается после курсора, без OFFSET и подсчета общего количества.
+
+    Slice<BookingDto> getBookingsByItemOwner(Long userId, String state, BookingCursor cursor, int size);
+
+    void checkBookingsByItemOwner(Long userId, String state);
+    // Проверка параметров выгрузки до начала ответа: после отправки первых строк код ошибки уже не вернуть.
+
+    void exportBookingsByItemOwner(Long userId, String state, Consumer<BookingDto> action);
+    // Передает в action все бронирования вещей пользователя по мере чтения из базы.
 }
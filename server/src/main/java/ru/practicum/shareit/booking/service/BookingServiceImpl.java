@@ -1,15 +1,22 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingFilter;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -18,7 +25,9 @@ import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +39,7 @@ public class BookingServiceImpl implements BookingService {
     private final ItemRepository itemRepository;
 
     @Override
+    @Transactional
     public BookingDto createBooking(Long userId, BookingDto bookingDto) {
         timeChecker(bookingDto);
         Booking booking = BookingMapper.toBooking(bookingDto);
@@ -38,7 +48,7 @@ public class BookingServiceImpl implements BookingService {
             throw new UserNotFoundException(String.format("Пользователя с id = %d не существует.", userId));
         }
         booking.setBooker(userOptional.get());
-        Optional<Item> itemOptional = itemRepository.findById(bookingDto.getItemId());
+        Optional<Item> itemOptional = itemRepository.findByIdForUpdate(bookingDto.getItemId());
         if (itemOptional.isEmpty()) {
             throw new ItemNotFoundException(String.format("Вещи с id = %d не существует", bookingDto.getItemId()));
         }
@@ -48,14 +58,20 @@ public class BookingServiceImpl implements BookingService {
         if (Objects.equals(itemOptional.get().getOwner().getId(), userId)) {
             throw new UserNotFoundException("Владелец не может бронировать свою вещь.");
         }
+        if (bookingRepository.existsOverlapping(itemOptional.get().getId(), Status.BLOCKING, booking.getStart(),
+                booking.getEnd())) {
+            throw new BookingOverlapException(String.format("%s уже забронирована на это время.",
+                    itemOptional.get().getName()));
+        }
         booking.setItem(itemOptional.get());
         booking.setStatus(Status.WAITING);
         return BookingMapper.toBookingDto(bookingRepository.save(booking));
     }
 
     @Override
+    @Transactional
     public BookingDto changeStatus(Long userId, Long bookingId, boolean available) {
-        Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
+        Optional<Booking> bookingOptional = bookingRepository.findByIdWithItem(bookingId);
         if (bookingOptional.isEmpty()) {
             throw new BookingNotFoundException(String.format("Бронирование с id = %d не найдено.", bookingId));
         }
@@ -68,6 +84,8 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingOptional.get();
         if (available) {
             booking.setStatus(Status.APPROVED);
+            // Подтвержденное бронирование может стать последним или следующим в ответе владельцу вещи
+            itemRepository.touch(booking.getItem());
         } else {
             booking.setStatus(Status.REJECTED);
         }
@@ -76,7 +94,7 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public BookingDto getBooking(Long userId, Long bookingId) {
-        Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
+        Optional<Booking> bookingOptional = bookingRepository.findByIdWithItem(bookingId);
         if (bookingOptional.isEmpty()) {
             throw new BookingNotFoundException(String.format("Бронирование с id = %d не найдено.", bookingId));
         }
@@ -84,84 +102,81 @@ public class BookingServiceImpl implements BookingService {
                 && !Objects.equals(bookingOptional.get().getItem().getOwner().getId(), userId)) {
             throw new UserNotFoundException("Пользователь не является владельцем вещи или автором бронирования.");
         }
-        return BookingMapper.toBookingDto(bookingOptional.get());
+        BookingDto bookingDto = BookingMapper.toBookingDto(bookingOptional.get());
+        bookingDto.setTag(bookingTag(bookingId, bookingOptional.get().getVersion(),
+                bookingOptional.get().getItem().getVersion()));
+        return bookingDto;
     }
 
     @Override
-    public List<BookingDto> getBookingsOfUser(Long userId, String state, Pageable pageable) {
-        try {
-            State.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new StateException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
-            throw new UserNotFoundException(String.format("Пользователя с id = %d не существует.", userId));
+    public Optional<String> getMatchingBookingTag(Long userId, Long bookingId, String ifNoneMatch) {
+        Optional<BookingVersionView> versionOptional = bookingRepository.findVersionById(bookingId);
+        if (versionOptional.isEmpty()) {
+            return Optional.empty();
         }
-        Page<Booking> bookings;
-        LocalDateTime time = LocalDateTime.now();
-        switch (State.valueOf(state)) {
-            case PAST:
-                bookings = bookingRepository.findByBookerIdAndEndIsBeforeOrderByStartDesc(userId, time, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartIsAfterOrderByStartDesc(userId, time, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId,
-                        time, time, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED,pageable);
-                break;
-            default:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable);
-                break;
+        BookingVersionView version = versionOptional.get();
+        if (!Objects.equals(version.getBookerId(), userId) && !Objects.equals(version.getOwnerId(), userId)) {
+            return Optional.empty();
         }
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        String currentTag = bookingTag(bookingId, version.getVersion(), version.getItemVersion());
+        return ETags.findMatching(ifNoneMatch, currentTag::equals);
+    }
+
+    @Override
+    public List<BookingDto> getBookingsOfUser(Long userId, String state, Pageable pageable) {
+        return toBookingDtos(bookingRepository.findByBookerId(userId, filter(userId, state), pageable));
     }
 
     @Override
     public List<BookingDto> getBookingsByItemOwner(Long userId, String state, Pageable pageable) {
-        try {
-            State.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new StateException("Unknown state: UNSUPPORTED_STATUS");
+        return toBookingDtos(bookingRepository.findByItemOwnerId(userId, filter(userId, state), pageable));
+    }
+
+    @Override
+    public Slice<BookingDto> getBookingsOfUser(Long userId, String state, BookingCursor cursor, int size) {
+        return bookingRepository.findByBookerIdAfterCursor(userId, filter(userId, state), cursor.getStart(),
+                cursor.getId(), PageRequest.of(0, size)).map(BookingMapper::toBookingDto);
+    }
+
+    @Override
+    public Slice<BookingDto> getBookingsByItemOwner(Long userId, String state, BookingCursor cursor, int size) {
+        return bookingRepository.findByItemOwnerIdAfterCursor(userId, filter(userId, state), cursor.getStart(),
+                cursor.getId(), PageRequest.of(0, size)).map(BookingMapper::toBookingDto);
+    }
+
+    @Override
+    public void checkBookingsByItemOwner(Long userId, String state) {
+        filter(userId, state);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookingsByItemOwner(Long userId, String state, Consumer<BookingDto> action) {
+        try (Stream<BookingView> bookings = bookingRepository.streamByItemOwnerId(userId, filter(userId, state))) {
+            bookings.map(BookingMapper::toBookingDto).forEach(action);
         }
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+    }
+
+    /**
+     * Проверяет состояние и пользователя списка бронирований и возвращает условие выборки на текущий момент.
+     */
+    private BookingFilter filter(Long userId, String state) {
+        State parsedState = parseState(state);
+        if (!userRepository.isPresent(userId)) {
             throw new UserNotFoundException(String.format("Пользователя с id = %d не существует.", userId));
         }
-        Page<Booking> bookings;
-        LocalDateTime time = LocalDateTime.now();
-        switch (State.valueOf(state)) {
-            case PAST:
-                bookings = bookingRepository.findByItemOwnerIdAndEndIsBeforeOrderByStartDesc(userId, time, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByItemOwnerIdAndStartIsAfterOrderByStartDesc(userId, time, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId,
-                        time, time, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING,
-                        pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED,
-                        pageable);
-                break;
-            default:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(userId, pageable);
-                break;
+        return BookingFilter.of(parsedState, LocalDateTime.now());
+    }
+
+    private static State parseState(String state) {
+        try {
+            return State.valueOf(state);
+        } catch (IllegalArgumentException e) {
+            throw new StateException("Unknown state: UNSUPPORTED_STATUS");
         }
+    }
+
+    private static List<BookingDto> toBookingDtos(Slice<BookingView> bookings) {
         return bookings.stream()
                 .map(BookingMapper::toBookingDto)
                 .collect(Collectors.toList());
@@ -180,5 +195,16 @@ public class BookingServiceImpl implements BookingService {
         if (bookingDto.getStart().isAfter(bookingDto.getEnd())) {
             throw new TimeException("Дата начала бронирования не может быть позднее даты окончания бронирования!");
         }
+        if (bookingDto.getEnd().isAfter(bookingDto.getStart().plus(Booking.MAX_DURATION))) {
+            throw new TimeException(String.format("Бронирование не может быть длиннее %d дней.",
+                    Booking.MAX_DURATION.toDays()));
+        }
+    }
+
+    /**
+     * В ответ входит название вещи, поэтому тег меняется и при изменении вещи.
+     */
+    private static String bookingTag(Long bookingId, Long version, Long itemVersion) {
+        return bookingId + "." + version + "." + itemVersion;
     }
 }
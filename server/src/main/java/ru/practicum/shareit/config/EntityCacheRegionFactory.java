@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Кэш второго уровня на Ehcache с регионами из ehcache.xml.
+ * Hibernate закрывает менеджер кэша вместе с SessionFactory, а провайдер JCache по одному URI выдаёт
+ * общий на всю JVM менеджер. Поэтому каждая SessionFactory получает собственный менеджер.
+ */
+public class EntityCacheRegionFactory extends JCacheRegionFactory {
+    private static final String CONFIG = "/ehcache.xml";
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map properties) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) getCachingProvider(properties);
+        XmlConfiguration configuration = new XmlConfiguration(getClass().getResource(CONFIG),
+                getClassLoader(provider));
+        return provider.getCacheManager(URI.create("urn:shareit:entity-cache:" + UUID.randomUUID()), configuration);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import ru.practicum.shareit.CachedJpaRepository;
+import ru.practicum.shareit.ShareItServer;
+
+/**
+ * Тесты {@code @DataJpaTest} подключают эту конфигурацию явно, иначе репозитории создаются без базового класса.
+ */
+@Configuration
+@EnableJpaRepositories(basePackageClasses = ShareItServer.class, repositoryBaseClass = CachedJpaRepository.class)
+public class JpaConfig {
+}
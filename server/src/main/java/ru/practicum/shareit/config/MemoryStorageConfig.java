@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Хранилище в памяти процесса: сервисы работают через те же репозитории, но с встроенной базой H2 вместо
+ * внешней. Схему создает Flyway, данные теряются при остановке сервера.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.storage.engine", havingValue = "memory")
+public class MemoryStorageConfig {
+    private static final String URL = "jdbc:h2:mem:shareit-memory;DB_CLOSE_DELAY=-1";
+
+    @Bean
+    public DataSource dataSource() {
+        return DataSourceBuilder.create()
+                .driverClassName("org.h2.Driver")
+                .url(URL)
+                .username("sa")
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -64,6 +65,12 @@ public class ErrorHandler {
         return Map.of("error", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> bookingOverlapHandler(final BookingOverlapException e) {
+        return Map.of("error", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public Map<String, String> bookingNotFoundHandler(final BookingNotFoundException e) {
@@ -93,4 +100,10 @@ public class ErrorHandler {
     public Map<String, String> itemRequestExceptionHandler(final ItemRequestException e) {
         return Map.of("error", e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> optimisticLockingFailureHandler(final ObjectOptimisticLockingFailureException e) {
+        return Map.of("error", "Данные изменены параллельным запросом, повторите попытку.");
+    }
 }
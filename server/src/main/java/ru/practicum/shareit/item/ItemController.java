@@ -2,16 +2,24 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeWindowDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.SearchMode;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.Valid;
 import javax.validation.ValidationException;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * TODO Sprint add-controllers.
@@ -34,8 +42,17 @@ public class ItemController {
     }
 
     @GetMapping("/{id}")
-    public ItemDto getItemById(@PathVariable Long id, @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.getItemById(id, userId);
+    public ResponseEntity<ItemDto> getItemById(@PathVariable Long id, @RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                               String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> tag = itemService.getMatchingItemTag(id, userId, ifNoneMatch);
+            if (tag.isPresent()) {
+                return ETags.notModified(tag.get());
+            }
+        }
+        ItemDto item = itemService.getItemById(id, userId);
+        return ETags.ok(item, item.getTag());
     }
 
     @PostMapping
@@ -53,12 +70,26 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDto> search(@RequestParam(defaultValue = "") String text,
+                                @RequestParam(defaultValue = "substring") String mode,
                                 @RequestParam(defaultValue = "0") @Min(0) Integer from,
                                 @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size) {
         if (from < 0 || size < 1) {
             throw new ValidationException("Переданы неверные параметры.");
         }
-        return itemService.search(text, PageRequest.of(from / size, size));
+        PageRequest pageRequest = PageRequest.of(from / size, size);
+        if (SearchMode.from(mode) == SearchMode.TEXT) {
+            return itemService.searchText(text, pageRequest);
+        }
+        return itemService.search(text, pageRequest);
+    }
+
+    @GetMapping("/{id}/availability")
+    public List<FreeWindowDto> getAvailability(@PathVariable Long id,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.getAvailability(id, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
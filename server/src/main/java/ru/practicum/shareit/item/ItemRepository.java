@@ -1,22 +1,43 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.CachedRepository;
+import ru.practicum.shareit.VersionedRepository;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("select i from Item as i where i.available = true " +
+public interface ItemRepository extends CachedRepository<Item, Long>, VersionedRepository<Item>, ItemSearchRepository {
+    /**
+     * Выборка полей вещи для списков. Запрос берётся только по внешнему ключу, владелец не читается.
+     */
+    String SELECT_VIEW = "select i.id as id, i.name as name, i.description as description, " +
+            "i.available as available, i.request.id as requestId from Item as i ";
+
+    @Query(SELECT_VIEW + "where i.available = true " +
             "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%')) )")
-    Page<Item> findByNameOrDescription(String text, Pageable pageable);
+    Slice<ItemView> findByNameOrDescription(String text, Pageable pageable);
 
     List<Item> findItemsByRequestId(Long requestId);
 
-    Page<Item> findByOwnerId(Long userId, Pageable pageable);
+    @Query(SELECT_VIEW + "where i.owner.id = ?1")
+    Slice<ItemView> findByOwnerId(Long userId, Pageable pageable);
+
+    /**
+     * Читает вещь с блокировкой строки до конца транзакции. Так бронирования одной вещи создаются по очереди,
+     * а бронирования разных вещей друг друга не ждут.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item as i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
 
-    List<Item> findAllByRequestId(Long requestId);
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 }
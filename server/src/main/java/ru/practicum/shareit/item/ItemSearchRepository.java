@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemView;
+
+import java.util.List;
+
+public interface ItemSearchRepository {
+    /**
+     * Доступные вещи, в названии или описании которых с каждого слова запроса начинается какое-то слово,
+     * в порядке убывания релевантности. Пустой список, если в запросе нет слов.
+     */
+    List<ItemView> search(String text, Pageable pageable);
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.search.SearchTerms;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.TypedQuery;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск выполняется в базе одним запросом: каждое слово запроса должно быть началом слова названия или описания,
+ * а релевантность считается в сортировке. Кандидатов отбирает like по подстроке (в PostgreSQL по триграммным
+ * индексам), границу слова проверяет функция {@code starts_word}, см. {@link SearchTerms}. Совпадение в названии
+ * весит {@value #NAME_WEIGHT}, в описании — {@value #DESCRIPTION_WEIGHT}.
+ */
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+    private static final int MAX_TERMS = 8;
+
+    private static final int NAME_WEIGHT = 2;
+
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ItemView> search(String text, Pageable pageable) {
+        List<String> terms = SearchTerms.tokenize(text, MAX_TERMS);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        StringBuilder where = new StringBuilder("where i.available = true");
+        StringJoiner score = new StringJoiner(" + ", "(", ")");
+        for (int i = 0; i < terms.size(); i++) {
+            where.append(String.format(" and (upper(i.name) like :c%1$d and %2$s "
+                    + "or upper(i.description) like :c%1$d and %3$s)", i, startsWord("name", i),
+                    startsWord("description", i)));
+            score.add(String.format("case when %s then %d when %s then %d else 0 end", startsWord("name", i),
+                    NAME_WEIGHT, startsWord("description", i), DESCRIPTION_WEIGHT));
+        }
+        TypedQuery<Tuple> query = entityManager.createQuery(ItemRepository.SELECT_VIEW + where
+                + " order by " + score + " desc, i.id", Tuple.class);
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            query.setParameter("c" + i, "%" + term + "%");
+            query.setParameter("t" + i, term);
+        }
+        return query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList().stream()
+                .map(this::toView)
+                .collect(Collectors.toList());
+    }
+
+    private static String startsWord(String field, int term) {
+        return String.format("function('starts_word', upper(i.%s), :t%d) = true", field, term);
+    }
+
+    private ItemView toView(Tuple tuple) {
+        Map<String, Object> values = new HashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            values.put(element.getAlias(), tuple.get(element));
+        }
+        return projectionFactory.createProjection(ItemView.class, values);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.item.dto.FreeWindowDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Свободные окна вещи. Занятые интервалы читаются из базы одним запросом по диапазону
+ * на каждый вызов, поэтому ответ учитывает бронирования, созданные любым экземпляром сервера.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemAvailability {
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Возвращает свободные окна вещи внутри [from, to). Время до текущего момента не возвращается:
+     * бронировать в прошлом нельзя.
+     */
+    public List<FreeWindowDto> getFreeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursor = from.isBefore(now) ? now : from;
+        List<FreeWindowDto> windows = new ArrayList<>();
+        if (!cursor.isBefore(to)) {
+            return windows;
+        }
+        for (BookingShortView busy : bookingRepository.findBusyIntervals(itemId, Status.BLOCKING, cursor, to)) {
+            if (busy.getStartDate().isAfter(cursor)) {
+                windows.add(FreeWindowDto.builder().start(cursor).end(busy.getStartDate()).build());
+            }
+            if (busy.getEndDate().isAfter(cursor)) {
+                cursor = busy.getEndDate();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            windows.add(FreeWindowDto.builder().start(cursor).end(to).build());
+        }
+        return windows;
+    }
+}
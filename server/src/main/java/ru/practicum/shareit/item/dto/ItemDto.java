@@ -1,10 +1,10 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.request.ItemRequest;
-import ru.practicum.shareit.user.User;
 
 import java.util.List;
 
@@ -19,10 +19,12 @@ public class ItemDto {
     private String name;
     private String description;
     private Boolean available;
-    private User owner;
-    private ItemRequest request;
     private BookingDto lastBooking;
     private BookingDto nextBooking;
     private List<CommentDto> comments;
     private Long requestId;
+    // ETag ответа GET /items/{id}, в теле не передается
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private String tag;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+public enum SearchMode {
+    // По вхождению всей строки в название или описание, по порядку вещей; режим по умолчанию
+    SUBSTRING,
+    // По началу слов названия и описания для каждого слова запроса, с сортировкой по релевантности
+    TEXT;
+
+    public static SearchMode from(String mode) {
+        for (SearchMode searchMode : values()) {
+            if (searchMode.name().equalsIgnoreCase(mode)) {
+                return searchMode;
+            }
+        }
+        throw new ValidationException("Unknown search mode: " + mode);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Слова поискового запроса и граница слова. Словом считается непрерывная последовательность букв и цифр,
+ * все остальные символы разделяют слова. Та же граница проверяется в базе функцией {@code starts_word}:
+ * в H2 это {@link #startsWord}, в PostgreSQL — регулярное выражение с классом {@code [:alnum:]}.
+ */
+public final class SearchTerms {
+    private SearchTerms() {
+    }
+
+    /**
+     * Слова запроса в верхнем регистре, без повторов и не больше {@code limit}. В словах нет спецсимволов
+     * LIKE и регулярных выражений.
+     */
+    public static List<String> tokenize(String text, int limit) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        String upper = text.toUpperCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= upper.length() && terms.size() < limit; i++) {
+            boolean wordChar = i < upper.length() && isWordChar(upper.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(upper.substring(start, i));
+                start = -1;
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Начинается ли с {@code term} какое-либо слово {@code text}. Регистр не учитывается на стороне вызывающего.
+     */
+    public static boolean startsWord(String text, String term) {
+        if (text == null || term == null || term.isEmpty()) {
+            return false;
+        }
+        for (int i = text.indexOf(term); i >= 0; i = text.indexOf(term, i + 1)) {
+            if (i == 0 || !isWordChar(text.charAt(i - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+}
@@ -2,10 +2,12 @@ package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeWindowDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
-
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
     List<ItemDto> getItems(Long id, Pageable pageable);
@@ -16,7 +18,17 @@ public interface ItemService {
 
     ItemDto getItemById(Long id, Long userId);
 
+    /**
+     * Тег из If-None-Match, под которым у пользователя сохранено актуальное представление вещи.
+     * Проверка идет по кэшу второго уровня, отзывы и бронирования не загружаются.
+     */
+    Optional<String> getMatchingItemTag(Long id, Long userId, String ifNoneMatch);
+
     List<ItemDto> search(String text, Pageable pageable);
 
+    List<ItemDto> searchText(String text, Pageable pageable);
+
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
+
+    List<FreeWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
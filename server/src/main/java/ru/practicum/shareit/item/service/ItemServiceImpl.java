@@ -1,20 +1,26 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.CommentRepository;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.availability.ItemAvailability;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.FreeWindowDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
@@ -23,6 +29,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -39,35 +46,29 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRequestRepository itemRequestRepository;
 
+    private final ItemAvailability itemAvailability;
+
     @Override
     public List<ItemDto> getItems(Long id, Pageable pageable) {
-        Page<Item> items = itemRepository.findByOwnerId(id, pageable);
+        Slice<ItemView> items = itemRepository.findByOwnerId(id, pageable);
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> itemIds = items.stream()
+                .map(ItemView::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Comment>> comments = commentRepository.findCommentsByItem_IdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<BookingShortView>> bookings = bookingRepository.findLastAndNextBookings(itemIds, now).stream()
+                .collect(Collectors.groupingBy(BookingShortView::getItemId));
         List<ItemDto> itemDtos = new ArrayList<>();
-        for (Item item : items) {
+        for (ItemView item : items) {
             ItemDto itemDto = ItemMapper.toItemDto(item);
-            List<Comment> comments = commentRepository.findCommentsByItem_Id(item.getId());
-            itemDto.setComments(comments.stream().map(CommentMapper::toCommentDto).collect(Collectors.toList()));
-            List<Booking> bookings = bookingRepository.findBookingByItem_IdAndStatus(item.getId(), Status.APPROVED);
-            if (bookings.size() != 0) {
-                bookings = bookings.stream()
-                        .sorted(Comparator.comparing(Booking::getStart).reversed())
-                        .collect(Collectors.toList());
-                for (Booking booking : bookings) {
-                    if (booking.getStart().isBefore(LocalDateTime.now())) {
-                        itemDto.setLastBooking(BookingMapper.toBookingDto(booking));
-                        break;
-                    }
-                }
-                bookings = bookings.stream()
-                        .sorted(Comparator.comparing(Booking::getStart))
-                        .collect(Collectors.toList());
-                for (Booking booking : bookings) {
-                    if (booking.getStart().isAfter(LocalDateTime.now())) {
-                        itemDto.setNextBooking(BookingMapper.toBookingDto(booking));
-                        break;
-                    }
-                }
-            }
+            itemDto.setComments(comments.getOrDefault(item.getId(), Collections.emptyList()).stream()
+                    .map(CommentMapper::toCommentDto)
+                    .collect(Collectors.toList()));
+            setLastAndNextBookings(itemDto, bookings.getOrDefault(item.getId(), Collections.emptyList()), now);
             itemDtos.add(itemDto);
         }
         return itemDtos.stream()
@@ -109,6 +110,7 @@ public class ItemServiceImpl implements ItemService {
             if (itemOptional.isPresent()) {
                 Item oldItem = itemOptional.get();
                 item.setId(oldItem.getId());
+                item.setVersion(oldItem.getVersion());
                 if (item.getName() == null || item.getName().equals("")) {
                     item.setName(oldItem.getName());
                 }
@@ -136,27 +138,13 @@ public class ItemServiceImpl implements ItemService {
             List<Comment> comments = commentRepository.findCommentsByItem_Id(item.getId());
             itemDto.setComments(comments.stream().map(CommentMapper::toCommentDto).collect(Collectors.toList()));
             if (Objects.equals(item.getOwner().getId(), userId)) {
-                List<Booking> bookings = bookingRepository.findBookingByItem_IdAndStatus(item.getId(), Status.APPROVED);
-                if (bookings.size() != 0) {
-                    bookings = bookings.stream()
-                            .sorted(Comparator.comparing(Booking::getStart).reversed())
-                            .collect(Collectors.toList());
-                    for (Booking booking : bookings) {
-                        if (booking.getStart().isBefore(LocalDateTime.now())) {
-                            itemDto.setLastBooking(BookingMapper.toBookingDto(booking));
-                            break;
-                        }
-                    }
-                    bookings = bookings.stream()
-                            .sorted(Comparator.comparing(Booking::getStart))
-                            .collect(Collectors.toList());
-                    for (Booking booking : bookings) {
-                        if (booking.getStart().isAfter(LocalDateTime.now())) {
-                            itemDto.setNextBooking(BookingMapper.toBookingDto(booking));
-                            break;
-                        }
-                    }
-                }
+                LocalDateTime now = LocalDateTime.now();
+                List<BookingShortView> bookings = bookingRepository.findLastAndNextBookings(List.of(item.getId()), now);
+                setLastAndNextBookings(itemDto, bookings, now);
+                itemDto.setTag(itemTag(item, true,
+                        itemDto.getNextBooking() != null ? itemDto.getNextBooking().getStart() : null));
+            } else {
+                itemDto.setTag(itemTag(item, false, null));
             }
             return itemDto;
         } else {
@@ -164,6 +152,21 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    public Optional<String> getMatchingItemTag(Long id, Long userId, String ifNoneMatch) {
+        Optional<Item> itemOptional = itemRepository.findById(id);
+        if (itemOptional.isEmpty()) {
+            return Optional.empty();
+        }
+        Item item = itemOptional.get();
+        boolean owner = Objects.equals(item.getOwner().getId(), userId);
+        String currentTag = itemTag(item, owner, null);
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        return ETags.findMatching(ifNoneMatch, tag -> owner && tag.startsWith(currentTag)
+                ? isBeforeNextStart(tag.substring(currentTag.length()), now)
+                : tag.equals(currentTag));
+    }
+
     @Override
     public List<ItemDto> search(String text, Pageable pageable) {
         if (Objects.equals(text, "")) {
@@ -175,6 +178,17 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    public List<ItemDto> searchText(String text, Pageable pageable) {
+        if (Objects.equals(text, "")) {
+            return new ArrayList<>();
+        }
+        return itemRepository.search(text, pageable).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
     public CommentDto createComment(Long userId, Long itemId, CommentDto commentDto) {
         if (commentDto.getText().isEmpty()) {
             throw new CommentException("Текс не может быть пустым.");
@@ -196,12 +210,48 @@ public class ItemServiceImpl implements ItemService {
                 comment.setAuthor(userOptional.get());
                 comment.setItem(itemOptional.get());
                 comment.setCreated(LocalDateTime.now());
-                return CommentMapper.toCommentDto(commentRepository.save(comment));
+                Comment savedComment = commentRepository.save(comment);
+                itemRepository.touch(itemOptional.get());
+                return CommentMapper.toCommentDto(savedComment);
             }
         }
         throw new UserException("Пользователь не арендовал вещь.");
     }
 
+    /**
+     * Тег вещи: id и версия, которая растет при изменении вещи, новом отзыве и подтверждении бронирования.
+     * Владелец видит еще последнее и следующее бронирование, а они сменяются без изменений в базе, когда наступает
+     * начало следующего. Поэтому в тег владельца входит это время в секундах: после него тег устаревает.
+     */
+    private static String itemTag(Item item, boolean owner, LocalDateTime nextStart) {
+        String tag = item.getId() + "." + item.getVersion();
+        if (!owner) {
+            return tag;
+        }
+        return tag + ".o" + (nextStart != null ? String.valueOf(nextStart.toEpochSecond(ZoneOffset.UTC)) : "");
+    }
+
+    private static boolean isBeforeNextStart(String nextStart, long now) {
+        if (nextStart.isEmpty()) {
+            return true;
+        }
+        try {
+            return now < Long.parseLong(nextStart);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void setLastAndNextBookings(ItemDto itemDto, List<BookingShortView> bookings, LocalDateTime now) {
+        for (BookingShortView booking : bookings) {
+            if (booking.getStartDate().isBefore(now)) {
+                itemDto.setLastBooking(BookingMapper.toBookingDto(booking));
+            } else {
+                itemDto.setNextBooking(BookingMapper.toBookingDto(booking));
+            }
+        }
+    }
+
     private void itemChecker(Item item) {
         if (item.getName() == null || item.getName().equals("")) {
             throw new ValidationException("Отсутствует название вещи.");
@@ -213,4 +263,15 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("Отсутствует обозначение наличия или отсутсвия вещи.");
         }
     }
+
+    @Override
+    public List<FreeWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new TimeException("Начало периода должно быть раньше его окончания.");
+        }
+        if (!itemRepository.isPresent(itemId)) {
+            throw new ItemNotFoundException(String.format("Вещи с id = %d не существует", itemId));
+        }
+        return itemAvailability.getFreeWindows(itemId, from, to);
+    }
 }
@@ -22,9 +22,11 @@ public class ItemRequest {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id", nullable = false)
     private User requester;
     @CreationTimestamp
     private LocalDateTime created;
+    @Version
+    private Long version;
 }
\ No newline at end of file
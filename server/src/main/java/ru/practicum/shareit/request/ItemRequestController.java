@@ -2,7 +2,10 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -11,6 +14,7 @@ import javax.validation.ValidationException;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * TODO Sprint add-item-requests.
@@ -28,8 +32,13 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getOwnItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestService.getOwnItemRequests(userId);
+    public List<ItemRequestDto> getOwnItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                   @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size) {
+        if (from < 0 || size < 1) {
+            throw new ValidationException("Переданы неверные параметры.");
+        }
+        return itemRequestService.getOwnItemRequests(userId, PageRequest.of(from / size, size));
     }
 
     @GetMapping("/all")
@@ -43,8 +52,17 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long requestId) {
-        return itemRequestService.getItemRequestById(userId, requestId);
+    public ResponseEntity<ItemRequestDto> getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @PathVariable Long requestId,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                                     required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> tag = itemRequestService.getMatchingItemRequestTag(userId, requestId, ifNoneMatch);
+            if (tag.isPresent()) {
+                return ETags.notModified(tag.get());
+            }
+        }
+        ItemRequestDto itemRequest = itemRequestService.getItemRequestById(userId, requestId);
+        return ETags.ok(itemRequest, itemRequest.getTag());
     }
 }
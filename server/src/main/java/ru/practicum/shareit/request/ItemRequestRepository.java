@@ -1,12 +1,29 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestVersionView;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(Long userId);
+    @EntityGraph(attributePaths = "requester")
+    List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(Long userId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findAllByRequesterIdNot(Long userId, Pageable pageable);
+
+    @Query("select r from ItemRequest as r join fetch r.requester where r.id = ?1")
+    Optional<ItemRequest> findByIdWithRequester(Long id);
+
+    /**
+     * Данные для проверки If-None-Match. Новая вещь меняет число вещей, изменение вещи — сумму их версий,
+     * так что запрос и вещи целиком не загружаются.
+     */
+    @Query("select r.version as version, count(i.id) as itemCount, coalesce(sum(i.version), 0) as itemVersionSum " +
+            "from ItemRequest as r left join Item as i on i.request = r where r.id = ?1 group by r.id, r.version")
+    Optional<ItemRequestVersionView> findVersionById(Long id);
 }
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.User;
 
@@ -20,4 +22,8 @@ public class ItemRequestDto {
     private User requester;
     private LocalDateTime created;
     private List<ItemDto> items;
+    // ETag ответа GET /requests/{id}, в теле не передается
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private String tag;
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.dto;
+
+/**
+ * Версия запроса и сводка по вещам, созданным в ответ на него.
+ */
+public interface ItemRequestVersionView {
+    Long getVersion();
+
+    Long getItemCount();
+
+    Long getItemVersionSum();
+}
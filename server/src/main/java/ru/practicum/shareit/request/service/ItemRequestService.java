@@ -4,13 +4,19 @@ import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestService {
     ItemRequestDto createItemRequest(Long userId, ItemRequestDto itemRequestDto);
 
-    List<ItemRequestDto> getOwnItemRequests(Long userId);
+    List<ItemRequestDto> getOwnItemRequests(Long userId, Pageable pageable);
 
     List<ItemRequestDto> getItemRequests(Long userId, Pageable pageable);
 
     ItemRequestDto getItemRequestById(Long userId, Long requestId);
+
+    /**
+     * Тег из If-None-Match, совпадающий с текущей версией запроса и его вещей. Проверка — один запрос-агрегат.
+     */
+    Optional<String> getMatchingItemRequestTag(Long userId, Long requestId, String ifNoneMatch);
 }
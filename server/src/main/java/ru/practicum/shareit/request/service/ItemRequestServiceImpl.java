@@ -3,15 +3,18 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.exception.ItemRequestException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestVersionView;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -42,55 +45,87 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequestDto> getOwnItemRequests(Long userId) {
-        if (userRepository.findById(userId).isEmpty()) {
+    public List<ItemRequestDto> getOwnItemRequests(Long userId, Pageable pageable) {
+        if (!userRepository.isPresent(userId)) {
             throw new UserNotFoundException(String.format("Пользователя с id = %d не существует.", userId));
         }
-        List<ItemRequestDto> itemRequestDtos = itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId)
-                .stream()
+        List<ItemRequestDto> itemRequestDtos = itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId,
+                        pageable).stream()
                 .map(ItemRequestMapper::toItemRequestDto)
                 .collect(Collectors.toList());
-        for (ItemRequestDto itemRequestDto : itemRequestDtos) {
-            List<ItemDto> itemDtos =  itemRepository.findAllByRequestId(itemRequestDto.getId()).stream()
-                    .map(ItemMapper::toItemRequestDto)
-                    .collect(Collectors.toList());
-            itemRequestDto.setItems(itemDtos);
-        }
+        setItems(itemRequestDtos);
         return itemRequestDtos;
     }
 
     @Override
     public List<ItemRequestDto> getItemRequests(Long userId, Pageable pageable) {
-        if (userRepository.findById(userId).isEmpty()) {
+        if (!userRepository.isPresent(userId)) {
             throw new UserNotFoundException(String.format("Пользователя с id = %d не существует.", userId));
         }
         List<ItemRequestDto> itemRequestDtos = itemRequestRepository.findAllByRequesterIdNot(userId, pageable).stream()
                 .map(ItemRequestMapper::toItemRequestDto)
                 .collect(Collectors.toList());
-        for (ItemRequestDto itemRequestDto : itemRequestDtos) {
-            List<ItemDto> itemDtos =  itemRepository.findAllByRequestId(itemRequestDto.getId()).stream()
-                    .map(ItemMapper::toItemRequestDto)
-                    .collect(Collectors.toList());
-            itemRequestDto.setItems(itemDtos);
-        }
+        setItems(itemRequestDtos);
         return itemRequestDtos;
     }
 
     @Override
     public ItemRequestDto getItemRequestById(Long userId, Long requestId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+        if (!userRepository.isPresent(userId)) {
             throw new UserNotFoundException(String.format("Пользователя с id = %d не существует.", userId));
         }
-        Optional<ItemRequest> itemRequestOptional = itemRequestRepository.findById(requestId);
+        Optional<ItemRequest> itemRequestOptional = itemRequestRepository.findByIdWithRequester(requestId);
         if (itemRequestOptional.isEmpty()) {
             throw new UserNotFoundException(String.format("Запрос с id = %d не существует.", requestId));
         }
-        List<ItemDto> itemDtos = itemRepository.findItemsByRequestId(requestId).stream()
+        List<Item> items = itemRepository.findItemsByRequestId(requestId);
+        List<ItemDto> itemDtos = items.stream()
                 .map(ItemMapper::toItemRequestDto)
                 .collect(Collectors.toList());
         ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequestOptional.get());
         itemRequestDto.setItems(itemDtos);
+        itemRequestDto.setTag(itemRequestTag(requestId, itemRequestOptional.get().getVersion(), items.size(),
+                items.stream().mapToLong(Item::getVersion).sum()));
         return itemRequestDto;
     }
+
+    @Override
+    public Optional<String> getMatchingItemRequestTag(Long userId, Long requestId, String ifNoneMatch) {
+        if (!userRepository.isPresent(userId)) {
+            return Optional.empty();
+        }
+        Optional<ItemRequestVersionView> versionOptional = itemRequestRepository.findVersionById(requestId);
+        if (versionOptional.isEmpty()) {
+            return Optional.empty();
+        }
+        ItemRequestVersionView version = versionOptional.get();
+        String currentTag = itemRequestTag(requestId, version.getVersion(), version.getItemCount(),
+                version.getItemVersionSum());
+        return ETags.findMatching(ifNoneMatch, currentTag::equals);
+    }
+
+    /**
+     * Вещь, созданная по запросу, меняет число вещей, а изменение вещи увеличивает сумму их версий.
+     */
+    private static String itemRequestTag(Long requestId, Long version, long itemCount, long itemVersionSum) {
+        return requestId + "." + version + "." + itemCount + "." + itemVersionSum;
+    }
+
+    /**
+     * Загружает вещи для всех запросов страницы одним запросом и раскладывает их по запросам.
+     */
+    private void setItems(List<ItemRequestDto> itemRequestDtos) {
+        if (itemRequestDtos.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = itemRequestDtos.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::toItemRequestDto, Collectors.toList())));
+        for (ItemRequestDto itemRequestDto : itemRequestDtos) {
+            itemRequestDto.setItems(itemsByRequest.getOrDefault(itemRequestDto.getId(), new ArrayList<>()));
+        }
+    }
 }
@@ -1,11 +1,19 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.NdjsonWriter;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -16,8 +24,14 @@ import java.util.List;
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserService userService;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     public UserDto createUser(@Valid @RequestBody UserDto userDto) {
         return userService.createUser(userDto);
@@ -34,13 +48,54 @@ public class UserController {
         userService.deleteUser(id);
     }
 
+    /**
+     * Без параметров возвращает всех пользователей. С {@code afterId} или {@code size} возвращает страницу
+     * из {@code size} пользователей с id больше {@code afterId} в порядке возрастания id: следующую страницу
+     * запрашивают с id последнего полученного пользователя.
+     */
     @GetMapping
-    public List<UserDto> getUsers() {
-        return userService.getUsers();
+    public List<UserDto> getUsers(@RequestParam(required = false) Long afterId,
+                                  @RequestParam(required = false) Integer size) {
+        if (afterId == null && size == null) {
+            return userService.getUsers();
+        }
+        if (afterId == null) {
+            afterId = 0L;
+        }
+        if (size == null) {
+            size = DEFAULT_PAGE_SIZE;
+        }
+        if (afterId < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Переданы неверные параметры.");
+        }
+        return userService.getUsers(afterId, size);
+    }
+
+    /**
+     * Отдаёт всех пользователей в формате NDJSON, по строке на пользователя, по мере чтения из базы.
+     * Список целиком в памяти не собирается, без пользователей тело пустое.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    try (NdjsonWriter writer = new NdjsonWriter(out, objectMapper)) {
+                        userService.streamUsers(user -> write(writer, user));
+                    }
+                });
     }
 
     @GetMapping("/{id}")
     public UserDto getUserById(@PathVariable Long id) {
         return userService.getUserById(id);
     }
+
+    private static void write(NdjsonWriter writer, UserDto user) {
+        try {
+            writer.write(user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
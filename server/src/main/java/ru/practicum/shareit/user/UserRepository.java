@@ -1,6 +1,26 @@
 package ru.practicum.shareit.user;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.CachedRepository;
+import ru.practicum.shareit.user.dto.UserView;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface UserRepository extends CachedRepository<User, Long> {
+    List<User> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    /**
+     * Читает всех пользователей курсором базы порциями по 500 строк. Строки возвращаются как проекции,
+     * а не сущности, поэтому контекст персистентности за время чтения не растёт.
+     * Поток нужно закрыть и читать внутри транзакции.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select u.id as id, u.name as name, u.email as email from User as u order by u.id")
+    Stream<UserView> streamAll();
 }
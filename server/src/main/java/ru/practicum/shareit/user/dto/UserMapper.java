@@ -13,6 +13,14 @@ public final class UserMapper {
                 .build();
     }
 
+    public static UserDto toUserDto(UserView user) {
+        return UserDto.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+
     public static User toUser(UserDto userDto) {
         return User.builder()
                 .id(userDto.getId())
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto createUser(UserDto userDto);
@@ -13,5 +14,9 @@ public interface UserService {
 
     List<UserDto> getUsers();
 
+    List<UserDto> getUsers(Long afterId, int size);
+
+    void streamUsers(Consumer<UserDto> action);
+
     UserDto getUserById(Long id);
 }
@@ -1,17 +1,22 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EmailException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.dto.UserView;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -46,8 +51,9 @@ public class UserServiceImp implements UserService {
 
     @Override
     public void deleteUser(Long id) {
-        if (userRepository.findById(id).isPresent()) {
-            userRepository.deleteById(id);
+        Optional<User> userOptional = userRepository.findById(id);
+        if (userOptional.isPresent()) {
+            userRepository.delete(userOptional.get());
         } else {
             throw new UserNotFoundException(String.format("Пользователя с id = %d не существует.", id));
         }
@@ -60,6 +66,21 @@ public class UserServiceImp implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UserDto> getUsers(Long afterId, int size) {
+        return userRepository.findByIdGreaterThanOrderById(afterId, PageRequest.of(0, size)).stream()
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUsers(Consumer<UserDto> action) {
+        try (Stream<UserView> users = userRepository.streamAll()) {
+            users.map(UserMapper::toUserDto).forEach(action);
+        }
+    }
+
     @Override
     public UserDto getUserById(Long id) {
         Optional<User> userOptional = userRepository.findById(id);
@@ -0,0 +1,2 @@
+-- Граница слова берется из SearchTerms, как и при разборе запроса.
+CREATE ALIAS IF NOT EXISTS STARTS_WORD DETERMINISTIC FOR 'ru.practicum.shareit.item.search.SearchTerms.startsWord';
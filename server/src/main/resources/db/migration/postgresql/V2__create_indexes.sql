@@ -0,0 +1,13 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created);
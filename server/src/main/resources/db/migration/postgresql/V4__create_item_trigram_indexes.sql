@@ -0,0 +1,4 @@
+-- Выражения совпадают с ItemRepository.findByNameOrDescription, поэтому like '%...%' идет по индексу, а не по всей таблице.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_name_trgm ON items USING gin (upper(name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_description_trgm ON items USING gin (upper(description) gin_trgm_ops);
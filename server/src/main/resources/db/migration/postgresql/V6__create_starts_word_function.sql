@@ -0,0 +1,5 @@
+-- Граница слова как в SearchTerms: начало строки или любой символ кроме буквы и цифры. Слова запроса состоят
+-- только из букв и цифр, поэтому подставляются в выражение без экранирования.
+CREATE OR REPLACE FUNCTION starts_word(value text, term text) RETURNS boolean
+    LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE
+AS $$ SELECT value ~ ('(^|[^[:alnum:]])' || term) $$;
@@ -0,0 +1,5 @@
+-- Частичные индексы только по ожидающим подтверждения бронированиям: состояние WAITING и проверка пересечений
+-- читают небольшую часть таблицы, а end_date в INCLUDE позволяет не обращаться к строкам за концом интервала.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_waiting ON bookings (booker_id, start_date DESC) INCLUDE (end_date) WHERE status = 'WAITING';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_waiting ON bookings (item_id, start_date) INCLUDE (end_date) WHERE status = 'WAITING';
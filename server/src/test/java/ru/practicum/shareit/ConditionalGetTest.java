@@ -0,0 +1,209 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Условные GET вещи, бронирования и запроса: 304 на неизменный ресурс без загрузки сущностей и новый ETag
+ * после каждого изменения, которое попадает в ответ.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ConditionalGetTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.createUser(UserDto.builder()
+                .name("owner")
+                .email("owner@mail.com")
+                .build()).getId();
+        bookerId = userService.createUser(UserDto.builder()
+                .name("booker")
+                .email("booker@mail.com")
+                .build()).getId();
+        itemId = itemService.createItem(ItemDto.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .build(), ownerId).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void itemNotModifiedWithoutStatementsTest() throws Exception {
+        String tag = getTag("/items/" + itemId, bookerId);
+        statistics.clear();
+
+        assertNotModified("/items/" + itemId, bookerId, tag);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertNotModified("/items/" + itemId, bookerId, "W/\"other\", " + tag);
+    }
+
+    @Test
+    void itemTagChangesOnUpdateAndCommentTest() throws Exception {
+        Long bookingId = bookingService.createBooking(bookerId, BookingDto.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusSeconds(1))
+                .end(LocalDateTime.now().plusSeconds(2))
+                .build()).getId();
+        bookingService.changeStatus(ownerId, bookingId, true);
+        String tag = getTag("/items/" + itemId, bookerId);
+
+        itemService.updateItem(ItemDto.builder().name("new name").build(), itemId, ownerId);
+        String updatedTag = assertModified("/items/" + itemId, bookerId, tag);
+
+        waitUntil(LocalDateTime.now().plusSeconds(2));
+        itemService.createComment(bookerId, itemId, CommentDto.builder().text("comment").build());
+        assertModified("/items/" + itemId, bookerId, updatedTag);
+    }
+
+    @Test
+    void ownerItemTagChangesOnApprovalAndNextBookingStartTest() throws Exception {
+        Long bookingId = bookingService.createBooking(bookerId, BookingDto.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusSeconds(2))
+                .end(LocalDateTime.now().plusSeconds(3))
+                .build()).getId();
+        String tag = getTag("/items/" + itemId, ownerId);
+        assertThat(tag).isNotEqualTo(getTag("/items/" + itemId, bookerId));
+
+        bookingService.changeStatus(ownerId, bookingId, true);
+        String approvedTag = assertModified("/items/" + itemId, ownerId, tag);
+        assertNotModified("/items/" + itemId, ownerId, approvedTag);
+
+        waitUntil(LocalDateTime.now().plusSeconds(3));
+        assertModified("/items/" + itemId, ownerId, approvedTag);
+    }
+
+    @Test
+    void bookingNotModifiedUntilStatusChangeTest() throws Exception {
+        Long bookingId = bookingService.createBooking(bookerId, BookingDto.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build()).getId();
+        String tag = getTag("/bookings/" + bookingId, bookerId);
+        statistics.clear();
+
+        assertNotModified("/bookings/" + bookingId, ownerId, tag);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        Long strangerId = userService.createUser(UserDto.builder()
+                .name("stranger")
+                .email("stranger@mail.com")
+                .build()).getId();
+        mockMvc.perform(get("/bookings/{id}", bookingId)
+                        .header("X-Sharer-User-Id", strangerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotFound());
+
+        bookingService.changeStatus(ownerId, bookingId, false);
+        assertModified("/bookings/" + bookingId, bookerId, tag);
+    }
+
+    @Test
+    void requestTagChangesWithItemsTest() throws Exception {
+        Long requestId = itemRequestService.createItemRequest(bookerId, ItemRequestDto.builder()
+                .description("request")
+                .build()).getId();
+        String tag = getTag("/requests/" + requestId, ownerId);
+        statistics.clear();
+
+        assertNotModified("/requests/" + requestId, ownerId, tag);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        Long requestedItemId = itemService.createItem(ItemDto.builder()
+                .name("requested")
+                .description("description")
+                .available(true)
+                .requestId(requestId)
+                .build(), ownerId).getId();
+        String withItemTag = assertModified("/requests/" + requestId, ownerId, tag);
+
+        itemService.updateItem(ItemDto.builder().available(false).build(), requestedItemId, ownerId);
+        assertModified("/requests/" + requestId, ownerId, withItemTag);
+    }
+
+    private String getTag(String url, Long userId) throws Exception {
+        return mockMvc.perform(get(url).header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void assertNotModified(String url, Long userId, String ifNoneMatch) throws Exception {
+        mockMvc.perform(get(url)
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    private String assertModified(String url, Long userId, String ifNoneMatch) throws Exception {
+        String tag = mockMvc.perform(get(url)
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(tag).isNotEqualTo(ifNoneMatch);
+        return tag;
+    }
+
+    private static void waitUntil(LocalDateTime time) throws InterruptedException {
+        while (LocalDateTime.now().isBefore(time)) {
+            Thread.sleep(100);
+        }
+    }
+}
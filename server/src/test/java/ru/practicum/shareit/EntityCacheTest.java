@@ -0,0 +1,163 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class EntityCacheTest {
+    private final UserService userService;
+
+    private final ItemService itemService;
+
+    private final UserRepository userRepository;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final MockMvc mockMvc;
+
+    private Statistics statistics;
+
+    private UserDto user;
+
+    @BeforeEach
+    void beforeEach() {
+        user = userService.createUser(UserDto.builder()
+                .name("name")
+                .email("e@mail.com")
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getUserFromCacheTest() {
+        userService.getUserById(user.getId());
+        userService.getUserById(user.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void userIsPresentFromCacheTest() {
+        userService.getUserById(user.getId());
+        statistics.clear();
+
+        assertTrue(userRepository.isPresent(user.getId()));
+        assertTrue(userRepository.isPresent(user.getId()));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void userIsPresentNotCachedTest() {
+        assertTrue(userRepository.isPresent(user.getId()));
+        assertFalse(userRepository.isPresent(-99L));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+        assertFalse(entityManagerFactory.getCache().contains(User.class, user.getId()));
+    }
+
+    @Test
+    void updateUserRefreshesCacheTest() {
+        userService.updateUser(UserDto.builder()
+                .id(user.getId())
+                .name("newName")
+                .build());
+
+        assertEquals("newName", userService.getUserById(user.getId()).getName());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, user.getId()));
+    }
+
+    @Test
+    void deleteUserEvictsCacheTest() {
+        userService.getUserById(user.getId());
+        userService.deleteUser(user.getId());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(user.getId()));
+    }
+
+    @Test
+    void updateItemRefreshesCacheTest() {
+        ItemDto item = itemService.createItem(ItemDto.builder()
+                .name("item")
+                .description("desc")
+                .available(true)
+                .build(), user.getId());
+        itemService.updateItem(ItemDto.builder()
+                .name("newItem")
+                .build(), item.getId(), user.getId());
+        statistics.clear();
+
+        assertEquals("newItem", itemService.getItemById(item.getId(), user.getId()).getName());
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void cacheEntriesExpireTest() {
+        CacheManager cacheManager = ((JCacheRegionFactory) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(RegionFactory.class))
+                .getCacheManager();
+
+        for (Class<?> entity : List.of(User.class, Item.class)) {
+            Eh107Configuration<Object, Object> configuration = cacheManager.getCache(entity.getName())
+                    .getConfiguration(Eh107Configuration.class);
+            ExpiryPolicy expiry = configuration.unwrap(CacheRuntimeConfiguration.class).getExpiryPolicy();
+            assertEquals(Duration.ofSeconds(30), expiry.getExpiryForCreation(null, null));
+        }
+    }
+
+    @Test
+    void cacheMetricsTest() throws Exception {
+        userService.getUserById(user.getId());
+        userService.getUserById(user.getId());
+
+        mockMvc.perform(get("/actuator/metrics/hibernate.second.level.cache.requests")
+                        .param("tag", "region:" + User.class.getName())
+                        .param("tag", "result:hit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value", greaterThanOrEqualTo(1.0)));
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+public class JpaStorageEngineTest extends StorageEngineContractTest {
+}
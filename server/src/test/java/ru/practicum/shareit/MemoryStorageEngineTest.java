@@ -0,0 +1,27 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "shareit.storage.engine=memory")
+@AutoConfigureMockMvc
+@DirtiesContext
+public class MemoryStorageEngineTest extends StorageEngineContractTest {
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void embeddedDatabaseTest() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).startsWith("jdbc:h2:mem:shareit-memory");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Считает запросы к базе на один HTTP-запрос постраничных списков. Данных больше, чем помещается на страницу,
+ * поэтому при выдаче {@code Page} Spring Data выполнил бы еще и {@code count}: с ним списки вещей, поиска
+ * и бронирований обходились в 4, 2 и 2 запроса вместо 3, 1 и 1. Все SQL-запросы, включая загрузку
+ * связанных сущностей, считает {@link StatementCountTest}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PaginationRoundTripTest {
+    private static final int ITEMS = 15;
+
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    @BeforeAll
+    void seed() {
+        ownerId = userService.createUser(UserDto.builder()
+                .name("owner")
+                .email("owner@mail.com")
+                .build()).getId();
+        bookerId = userService.createUser(UserDto.builder()
+                .name("booker")
+                .email("booker@mail.com")
+                .build()).getId();
+        for (int i = 1; i <= ITEMS; i++) {
+            ItemDto item = itemService.createItem(ItemDto.builder()
+                    .name("item " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .build(), ownerId);
+            BookingDto booking = bookingService.createBooking(bookerId, BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().plusDays(i))
+                    .end(LocalDateTime.now().plusDays(i).plusHours(1))
+                    .build());
+            bookingService.changeStatus(ownerId, booking.getId(), true);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+        "/items|owner|3",
+        "/items/search?text=item|booker|1",
+        "/items/search?text=item&mode=substring|booker|1",
+        "/bookings|booker|1",
+        "/bookings/owner|owner|1",
+        "/bookings?cursor=|booker|1"
+    })
+    void pageIsServedWithoutCountQueryTest(String url, String user, long expectedQueries) throws Exception {
+        mockMvc.perform(get(url)
+                        .header("X-Sharer-User-Id", "owner".equals(user) ? ownerId : bookerId)
+                        .param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PAGE_SIZE)));
+
+        assertThat(Arrays.stream(statistics.getQueries()))
+                .as(url)
+                .noneMatch(query -> query.matches("select count\\(.*\\) from (Item|Booking) .*"));
+        assertThat(statistics.getQueryExecutionCount()).as(url).isEqualTo(expectedQueries);
+    }
+}
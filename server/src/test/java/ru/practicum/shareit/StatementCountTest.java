@@ -0,0 +1,185 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Фиксирует число SQL-запросов на один HTTP-запрос. Каждая вещь создана по отдельному запросу,
+ * у каждой есть бронирования и отзыв, так что догрузка связанных сущностей по одной
+ * сразу увеличила бы счётчик. Пользователи и вещи к моменту замера уже лежат в кэше второго уровня,
+ * поэтому их поиск по id запросов к базе не добавляет.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class StatementCountTest {
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    private Long itemId;
+
+    private Long requestId;
+
+    private Long bookingId;
+
+    @BeforeAll
+    void seed() {
+        ownerId = userService.createUser(UserDto.builder()
+                .name("owner")
+                .email("owner@mail.com")
+                .build()).getId();
+        bookerId = userService.createUser(UserDto.builder()
+                .name("booker")
+                .email("booker@mail.com")
+                .build()).getId();
+        for (int i = 1; i <= ITEMS; i++) {
+            requestId = itemRequestService.createItemRequest(bookerId, ItemRequestDto.builder()
+                    .description("request " + i)
+                    .build()).getId();
+            itemId = itemService.createItem(ItemDto.builder()
+                    .name("item " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .requestId(requestId)
+                    .build(), ownerId).getId();
+            bookingRepository.save(Booking.builder()
+                    .item(itemRepository.getReferenceById(itemId))
+                    .booker(userRepository.getReferenceById(bookerId))
+                    .start(LocalDateTime.now().minusDays(i + 1))
+                    .end(LocalDateTime.now().minusDays(i))
+                    .status(Status.APPROVED)
+                    .build());
+            itemService.createComment(bookerId, itemId, CommentDto.builder()
+                    .text("comment " + i)
+                    .build());
+            bookingId = bookingService.createBooking(bookerId, BookingDto.builder()
+                    .itemId(itemId)
+                    .start(LocalDateTime.now().plusDays(i))
+                    .end(LocalDateTime.now().plusDays(i).plusHours(1))
+                    .build()).getId();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Отзыв и подтверждение бронирования увеличивают версию вещи и удаляют ее из кэша второго уровня
+        itemRepository.findAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+        "/items|owner|3",
+        "/items/{item}|owner|2",
+        "/items/search?text=item|booker|1",
+        "/items/{item}/availability?from=2100-01-01T00:00:00&to=2100-01-02T00:00:00|booker|1",
+        "/bookings/{booking}|booker|1",
+        "/bookings|booker|1",
+        "/bookings/owner|owner|1",
+        "/bookings?cursor=|booker|1",
+        "/requests|booker|2",
+        "/requests/all|owner|2",
+        "/requests/{request}|owner|2"
+    })
+    void endpointStatementCountTest(String url, String user, long expectedStatements) throws Exception {
+        mockMvc.perform(get(url.replace("{item}", itemId.toString())
+                        .replace("{booking}", bookingId.toString())
+                        .replace("{request}", requestId.toString()))
+                        .header("X-Sharer-User-Id", "owner".equals(user) ? ownerId : bookerId))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).as(url).isEqualTo(expectedStatements);
+    }
+
+    @Test
+    void approveBookingStatementCountTest() throws Exception {
+        Long waitingBookingId = bookingService.createBooking(bookerId, BookingDto.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusYears(1))
+                .end(LocalDateTime.now().plusYears(1).plusHours(1))
+                .build()).getId();
+        statistics.clear();
+
+        mockMvc.perform(patch("/bookings/{bookingId}", waitingBookingId)
+                        .header("X-Sharer-User-Id", ownerId)
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+
+        // Выборка бронирования с вещью, обновление статуса и увеличение версии вещи для ETag
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Среднее время операций сервисов на движках jpa и memory. Для каждого движка поднимается свой контекст
+ * приложения, jpa работает с базой из spring.datasource. Первые {@value #WARMUP} итераций прогревают JIT и кэши
+ * и в замер не входят. Таблица с результатами пишется в лог, проверок времени нет.
+ * Запускается только в профиле {@code benchmark}: {@code mvn -pl server test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+public class StorageEngineBenchmarkTest {
+    private static final int WARMUP = 50;
+
+    private static final int ITERATIONS = 200;
+
+    private final Pageable pageable = PageRequest.of(0, 10);
+
+    @Test
+    void storageEnginesTest() {
+        Map<String, Long> jpa = measure("jpa");
+        Map<String, Long> memory = measure("memory");
+
+        StringBuilder report = new StringBuilder(String.format("%n%-12s %12s %12s",
+                "операция", "jpa, мкс", "memory, мкс"));
+        jpa.forEach((operation, nanos) -> report.append(String.format("%n%-12s %12.1f %12.1f", operation,
+                nanos / 1000.0 / ITERATIONS, memory.get(operation) / 1000.0 / ITERATIONS)));
+        log.info("Время операции сервиса, среднее по {} итерациям:{}", ITERATIONS, report);
+    }
+
+    private Map<String, Long> measure(String engine) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .properties("shareit.storage.engine=" + engine)
+                .run()) {
+            return measure(engine, context.getBean(UserService.class), context.getBean(ItemService.class));
+        }
+    }
+
+    private Map<String, Long> measure(String engine, UserService userService, ItemService itemService) {
+        Map<String, Long> nanos = new LinkedHashMap<>();
+        for (int iteration = 0; iteration < WARMUP + ITERATIONS; iteration++) {
+            int i = iteration;
+            boolean measured = i >= WARMUP;
+            UserDto user = timed(nanos, "createUser", measured, () -> userService.createUser(UserDto.builder()
+                    .name("user")
+                    .email(engine + i + "@bench.com")
+                    .build()));
+            Long userId = user.getId();
+            timed(nanos, "getUser", measured, () -> userService.getUserById(userId));
+            timed(nanos, "updateUser", measured,
+                    () -> userService.updateUser(UserDto.builder().id(userId).name("user " + i).build()));
+            ItemDto item = timed(nanos, "createItem", measured, () -> itemService.createItem(ItemDto.builder()
+                    .name("item " + i)
+                    .description("description")
+                    .available(true)
+                    .build(), userId));
+            Long itemId = item.getId();
+            timed(nanos, "getItem", measured, () -> itemService.getItemById(itemId, userId));
+            timed(nanos, "updateItem", measured, () -> itemService.updateItem(ItemDto.builder()
+                    .id(itemId)
+                    .description("bench " + i)
+                    .build(), itemId, userId));
+            timed(nanos, "search", measured, () -> itemService.search("bench " + i, pageable));
+        }
+        return nanos;
+    }
+
+    private static <T> T timed(Map<String, Long> nanos, String operation, boolean measured, Supplier<T> action) {
+        long start = System.nanoTime();
+        T result = action.get();
+        if (measured) {
+            nanos.merge(operation, System.nanoTime() - start, Long::sum);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Общие требования к серверу на любом хранилище, проверяются через API. База между тестами не очищается,
+ * поэтому у каждого теста свои email и слова для поиска.
+ */
+public abstract class StorageEngineContractTest {
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Test
+    void createAndGetUserTest() throws Exception {
+        String email = unique() + "@contract.com";
+        UserDto user = createUser("user", email);
+
+        mockMvc.perform(get("/users/" + user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("user")))
+                .andExpect(jsonPath("$.email", is(email)));
+    }
+
+    @Test
+    void updateUserKeepsMissingFieldsTest() throws Exception {
+        String email = unique() + "@contract.com";
+        UserDto user = createUser("user", email);
+
+        mockMvc.perform(json(patch("/users/" + user.getId()), UserDto.builder().name("renamed").build()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("renamed")))
+                .andExpect(jsonPath("$.email", is(email)));
+    }
+
+    @Test
+    void deleteUserTest() throws Exception {
+        UserDto user = createUser("user", unique() + "@contract.com");
+
+        mockMvc.perform(delete("/users/" + user.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/users/" + user.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateItemKeepsMissingFieldsTest() throws Exception {
+        UserDto owner = createUser("owner", unique() + "@contract.com");
+        ItemDto item = createItem(owner, "Стремянка", "Складная стремянка", true);
+
+        mockMvc.perform(json(patch("/items/" + item.getId()), ItemDto.builder().name("Табурет").build())
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/items/" + item.getId())
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Табурет")))
+                .andExpect(jsonPath("$.description", is("Складная стремянка")))
+                .andExpect(jsonPath("$.available", is(true)));
+    }
+
+    @Test
+    void getItemNotExistsTest() throws Exception {
+        UserDto user = createUser("user", unique() + "@contract.com");
+
+        mockMvc.perform(get("/items/" + Integer.MAX_VALUE)
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getItemsByOwnerTest() throws Exception {
+        UserDto owner = createUser("owner", unique() + "@contract.com");
+        UserDto other = createUser("other", unique() + "@contract.com");
+        ItemDto first = createItem(owner, "Стремянка", "Складная стремянка", true);
+        createItem(other, "Лестница", "Алюминиевая лестница", true);
+        ItemDto second = createItem(owner, "Табурет", "Табурет для кухни", false);
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(first.getId().intValue(), second.getId().intValue())));
+    }
+
+    @Test
+    void searchSkipsUnavailableItemsTest() throws Exception {
+        UserDto owner = createUser("owner", unique() + "@contract.com");
+        String word = unique();
+        ItemDto available = createItem(owner, "Дрель " + word, "Простая дрель", true);
+        createItem(owner, "Дрель " + word, "Дрель в ремонте", false);
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", word.substring(1).toUpperCase()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(available.getId().intValue())));
+        mockMvc.perform(get("/items/search")
+                        .param("text", word)
+                        .param("mode", "text"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(available.getId().intValue())));
+        mockMvc.perform(get("/items/search")
+                        .param("text", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()));
+    }
+
+    protected UserDto createUser(String name, String email) throws Exception {
+        return objectMapper.readValue(mockMvc.perform(json(post("/users"), UserDto.builder()
+                        .name(name)
+                        .email(email)
+                        .build()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), UserDto.class);
+    }
+
+    protected ItemDto createItem(UserDto owner, String name, String description, boolean available)
+            throws Exception {
+        return objectMapper.readValue(mockMvc.perform(json(post("/items"), ItemDto.builder()
+                                .name(name)
+                                .description(description)
+                                .available(available)
+                                .build())
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), ItemDto.class);
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body)
+            throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+    }
+
+    private static String unique() {
+        return "w" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+    }
+}
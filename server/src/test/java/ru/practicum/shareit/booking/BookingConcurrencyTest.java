@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingConcurrencyTest {
+    private static final int THREADS = 16;
+
+    private final BookingService bookingService;
+
+    private final BookingRepository bookingRepository;
+
+    private final UserService userService;
+
+    private final ItemService itemService;
+
+    private Long ownerId;
+
+    private final List<Long> bookerIds = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        ownerId = createUser("owner");
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(createUser("booker" + i));
+        }
+    }
+
+    @Test
+    void concurrentOverlappingBookingsTest() throws Exception {
+        Long itemId = createItem();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<Future<BookingDto>> results = race(i -> bookingService.createBooking(bookerIds.get(i),
+                getBookingDto(itemId, start.plusHours(i % 2), start.plusHours(2 + i % 2))));
+
+        int created = 0;
+        for (Future<BookingDto> result : results) {
+            try {
+                result.get();
+                created++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(BookingOverlapException.class, e.getCause());
+            }
+        }
+        assertEquals(1, created);
+        assertEquals(1, bookingRepository.findBookingByItem_Id(itemId).size());
+    }
+
+    @Test
+    void concurrentBookingsOfDifferentItemsTest() throws Exception {
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            itemIds.add(createItem());
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<Future<BookingDto>> results = race(i -> bookingService.createBooking(bookerIds.get(i),
+                getBookingDto(itemIds.get(i), start, start.plusHours(2))));
+
+        for (Future<BookingDto> result : results) {
+            result.get();
+        }
+        assertEquals(THREADS, bookingRepository.count());
+    }
+
+    private List<Future<BookingDto>> race(IntFunctionTask task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<BookingDto>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            results.add(executor.submit(() -> {
+                ready.await();
+                return task.apply(index);
+            }));
+        }
+        ready.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return results;
+    }
+
+    private Long createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .name(name)
+                .email(name + "@mail.com")
+                .build()).getId();
+    }
+
+    private Long createItem() {
+        return itemService.createItem(ItemDto.builder()
+                .name("item")
+                .description("desc")
+                .available(true)
+                .build(), ownerId).getId();
+    }
+
+    private BookingDto getBookingDto(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(itemId)
+                .build();
+    }
+
+    private interface IntFunctionTask {
+        BookingDto apply(int index) throws Exception;
+    }
+}
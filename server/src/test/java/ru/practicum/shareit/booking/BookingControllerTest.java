@@ -6,22 +6,39 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.BookingNotFoundException;
+import ru.practicum.shareit.exception.BookingOverlapException;
 import ru.practicum.shareit.exception.StateException;
 import ru.practicum.shareit.exception.TimeException;
 import ru.practicum.shareit.user.User;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -67,6 +84,17 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void createBookingOverlapTest() throws Exception {
+        when(bookingService.createBooking(anyLong(), any(BookingDto.class)))
+                .thenThrow(new BookingOverlapException("item уже забронирована на это время."));
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .content(objectMapper.writeValueAsString(bookingDto)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void createBookingWrongEndTest() throws Exception {
         bookingDto.setEnd(bookingDto.getStart().minusMinutes(10));
@@ -151,6 +179,42 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getBookingsOfUserByCursorTest() throws Exception {
+        when(bookingService.getBookingsOfUser(anyLong(), anyString(), any(BookingCursor.class), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(bookingDto), PageRequest.of(0, 1), true));
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        BookingCursor.after(bookingDto).encode()));
+        verify(bookingService).getBookingsOfUser(booker.getId(), "ALL", BookingCursor.FIRST, 1);
+    }
+
+    @Test
+    void getBookingsByItemOwnerLastCursorPageTest() throws Exception {
+        BookingCursor cursor = BookingCursor.after(bookingDto);
+        when(bookingService.getBookingsByItemOwner(anyLong(), anyString(), any(BookingCursor.class), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(bookingDto), PageRequest.of(0, 10), false));
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+        verify(bookingService).getBookingsByItemOwner(booker.getId(), "ALL", cursor, 10);
+    }
+
+    @Test
+    void getBookingsOfUserWrongCursorTest() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getBookingByItemOwnerTest() throws Exception {
         mockMvc.perform(get("/bookings/owner")
@@ -169,4 +233,92 @@ class BookingControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError());
     }
+
+    @Test
+    void exportBookingsByItemOwnerNdjsonTest() throws Exception {
+        BookingDto exported = exportedBooking("item");
+        doAnswer(invocation -> {
+            Consumer<BookingDto> action = invocation.getArgument(2);
+            action.accept(exported);
+            action.accept(exported);
+            return null;
+        }).when(bookingService).exportBookingsByItemOwner(eq(booker.getId()), eq("PAST"), any());
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("state", "PAST"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+
+        String line = objectMapper.writeValueAsString(exported);
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("bookings.ndjson")))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    void exportBookingsByItemOwnerCsvTest() throws Exception {
+        BookingDto exported = exportedBooking("drill, \"bosch\"");
+        doAnswer(invocation -> {
+            Consumer<BookingDto> action = invocation.getArgument(2);
+            action.accept(exported);
+            return null;
+        }).when(bookingService).exportBookingsByItemOwner(eq(booker.getId()), eq("ALL"), any());
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,itemId,itemName,bookerId,start,end,status\r\n"
+                        + "1,2,\"drill, \"\"bosch\"\"\",1," + exported.getStart() + "," + exported.getEnd()
+                        + ",APPROVED\r\n"));
+    }
+
+    @Test
+    void exportBookingsByItemOwnerWrongFormatTest() throws Exception {
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).exportBookingsByItemOwner(anyLong(), anyString(), any());
+    }
+
+    @Test
+    void exportBookingsByItemOwnerWrongStateTest() throws Exception {
+        doThrow(new StateException("Unknown state: UNSUPPORTED_STATUS"))
+                .when(bookingService).checkBookingsByItemOwner(anyLong(), anyString());
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("state", "UNSUPPORTED_STATUS"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.error", is("Unknown state: UNSUPPORTED_STATUS")));
+        verify(bookingService, never()).exportBookingsByItemOwner(anyLong(), anyString(), any());
+    }
+
+    private BookingDto exportedBooking(String itemName) {
+        return BookingDto.builder()
+                .id(1L)
+                .start(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .end(LocalDateTime.of(2024, 1, 2, 10, 0))
+                .item(BookingItemDto.builder()
+                        .id(2L)
+                        .name(itemName)
+                        .build())
+                .booker(BookerDto.builder()
+                        .id(booker.getId())
+                        .build())
+                .bookerId(booker.getId())
+                .status(Status.APPROVED)
+                .build();
+    }
 }
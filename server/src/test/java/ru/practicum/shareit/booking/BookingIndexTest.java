@@ -0,0 +1,249 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.config.JpaConfig;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что запросы {@link BookingRepository} к таблице bookings выполняются по индексам из миграций Flyway,
+ * а не полным сканированием таблицы. Для каждого пути доступа вызывается сам метод репозитория, а EXPLAIN
+ * выполняется для отправленного им SQL с теми же параметрами.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:explain;MODE=PostgreSQL")
+@Import({JpaConfig.class, BookingIndexTest.RecorderConfig.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BookingIndexTest {
+    private static final int USERS = 100;
+
+    private static final int ITEMS = 500;
+
+    private static final int BOOKINGS = 5000;
+
+    private static final String[] STATUSES = {"WAITING", "APPROVED", "REJECTED", "CANCELED"};
+
+    private static final String BOOKER_INDEX = "IDX_BOOKINGS_BOOKER_";
+
+    private static final String ITEM_INDEX = "IDX_BOOKINGS_ITEM_STATUS_START";
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private final Pageable page = PageRequest.of(0, 10);
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private StatementRecorder recorder;
+
+    @BeforeAll
+    void seed() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{"user" + i, "user" + i + "@mail.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (name, email) values (?, ?)", users);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ITEMS; i++) {
+            items.add(new Object[]{"item" + i, "description" + i, true, i % USERS + 1});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, available, owner_id) values (?, ?, ?, ?)",
+                items);
+
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 1; i <= BOOKINGS; i++) {
+            LocalDateTime start = now.plusHours(i - BOOKINGS / 2);
+            bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2)),
+                    i % ITEMS + 1, i % USERS + 1, STATUSES[i % STATUSES.length]});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?)", bookings);
+
+        jdbcTemplate.execute("analyze");
+    }
+
+    Stream<Arguments> accessPaths() {
+        List<Arguments> paths = new ArrayList<>();
+        for (State state : State.values()) {
+            BookingFilter filter = BookingFilter.of(state, now);
+            paths.add(path("booker " + state, BOOKER_INDEX, () -> repository.findByBookerId(1L, filter, page)));
+            paths.add(path("booker cursor " + state, BOOKER_INDEX,
+                    () -> repository.findByBookerIdAfterCursor(1L, filter, now, Long.MAX_VALUE, page)));
+            paths.add(path("owner " + state, ITEM_INDEX, () -> repository.findByItemOwnerId(1L, filter, page)));
+            paths.add(path("owner cursor " + state, ITEM_INDEX,
+                    () -> repository.findByItemOwnerIdAfterCursor(1L, filter, now, Long.MAX_VALUE, page)));
+            paths.add(path("owner export " + state, ITEM_INDEX, () -> {
+                try (Stream<?> bookings = repository.streamByItemOwnerId(1L, filter)) {
+                    bookings.forEach(booking -> { });
+                }
+            }));
+        }
+        paths.add(path("item busy intervals", ITEM_INDEX,
+                () -> repository.findBusyIntervals(1L, Status.BLOCKING, now, now.plusDays(7))));
+        paths.add(path("item overlap", ITEM_INDEX,
+                () -> repository.existsOverlapping(1L, Status.BLOCKING, now, now.plusHours(2))));
+        paths.add(path("item last and next", ITEM_INDEX,
+                () -> repository.findLastAndNextBookings(List.of(1L, 2L, 3L), now)));
+        return paths.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("accessPaths")
+    void bookingQueryUsesIndexTest(String accessPath, String expectedIndex, Runnable query) throws SQLException {
+        recorder.clear();
+        query.run();
+        List<StatementRecorder.Statement> statements = recorder.statements();
+        recorder.clear();
+
+        assertThat(statements).as(accessPath).hasSize(1);
+        String plan = explain(statements.get(0));
+        assertThat(plan).as(accessPath).doesNotContainIgnoringCase("tableScan");
+        assertThat(plan).as(accessPath).contains(expectedIndex);
+    }
+
+    private String explain(StatementRecorder.Statement statement) throws SQLException {
+        try (Connection connection = ((DelegatingDataSource) dataSource).getTargetDataSource().getConnection();
+             PreparedStatement explain = connection.prepareStatement("explain " + statement.getSql())) {
+            for (Map.Entry<Integer, Object> parameter : statement.getParameters().entrySet()) {
+                explain.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+
+    private static Arguments path(String name, String expectedIndex, Runnable query) {
+        return Arguments.of(name, expectedIndex, query);
+    }
+
+    @TestConfiguration
+    static class RecorderConfig {
+        @Bean
+        static StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+    }
+
+    /**
+     * Запоминает SQL и параметры запросов, которые Hibernate выполняет через executeQuery.
+     */
+    static class StatementRecorder implements BeanPostProcessor {
+        private final List<Statement> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource) || bean instanceof DelegatingDataSource) {
+                return bean;
+            }
+            return new DelegatingDataSource((DataSource) bean) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return proxy(Connection.class, super.getConnection(), (method, args, result) ->
+                            method.getName().equals("prepareStatement")
+                                    ? proxy(PreparedStatement.class, result, recording((String) args[0]))
+                                    : result);
+                }
+            };
+        }
+
+        List<Statement> statements() {
+            return statements.stream()
+                    .filter(statement -> statement.getSql().toLowerCase().contains("bookings"))
+                    .collect(Collectors.toList());
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        private Interception recording(String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return (method, args, result) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer) {
+                    parameters.put((Integer) args[0], method.getName().equals("setNull") ? null : args[1]);
+                } else if (method.getName().equals("executeQuery")) {
+                    statements.add(new Statement(sql, new TreeMap<>(parameters)));
+                }
+                return result;
+            };
+        }
+
+        private static <T> T proxy(Class<T> type, Object target, Interception interception) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        try {
+                            return interception.after(method, args, method.invoke(target, args));
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }));
+        }
+
+        private interface Interception {
+            Object after(Method method, Object[] args, Object result) throws Exception;
+        }
+
+        static class Statement {
+            private final String sql;
+
+            private final Map<Integer, Object> parameters;
+
+            Statement(String sql, Map<Integer, Object> parameters) {
+                this.sql = sql;
+                this.parameters = parameters;
+            }
+
+            String getSql() {
+                return sql;
+            }
+
+            Map<Integer, Object> getParameters() {
+                return parameters;
+            }
+        }
+    }
+}
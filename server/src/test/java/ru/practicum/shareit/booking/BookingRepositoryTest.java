@@ -0,0 +1,233 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.config.JpaConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+public class BookingRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository repository;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+    private Item item;
+
+    private Item otherItem;
+
+    private Booking lastBooking;
+
+    private Booking nextBooking;
+
+    private Booking otherLastBooking;
+
+    private User booker;
+
+    @BeforeEach
+    void beforeEach() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@mail.com");
+        entityManager.persist(owner);
+
+        booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@mail.com");
+        entityManager.persist(booker);
+
+        item = createItem(owner, "item");
+        otherItem = createItem(owner, "otherItem");
+
+        createBooking(item, booker, now.minusDays(5), Status.APPROVED);
+        lastBooking = createBooking(item, booker, now.minusDays(1), Status.APPROVED);
+        createBooking(item, booker, now.minusHours(1), Status.REJECTED);
+        createBooking(item, booker, now.plusHours(1), Status.WAITING);
+        nextBooking = createBooking(item, booker, now.plusDays(1), Status.APPROVED);
+        createBooking(item, booker, now.plusDays(5), Status.APPROVED);
+        otherLastBooking = createBooking(otherItem, booker, now.minusDays(2), Status.APPROVED);
+    }
+
+    @Test
+    void findLastAndNextBookingsTest() {
+        List<BookingShortView> found = repository.findLastAndNextBookings(List.of(item.getId()), now);
+        Map<Long, BookingShortView> byId = found.stream()
+                .collect(Collectors.toMap(BookingShortView::getId, Function.identity()));
+
+        assertThat(byId).containsOnlyKeys(lastBooking.getId(), nextBooking.getId());
+        assertThat(byId.get(lastBooking.getId()).getItemId()).isEqualTo(item.getId());
+        assertThat(byId.get(lastBooking.getId()).getStartDate()).isEqualTo(lastBooking.getStart());
+        assertThat(byId.get(nextBooking.getId()).getBookerId()).isEqualTo(nextBooking.getBooker().getId());
+        assertThat(byId.get(nextBooking.getId()).getStatus()).isEqualTo(Status.APPROVED);
+    }
+
+    @Test
+    void findLastAndNextBookingsForSeveralItemsTest() {
+        List<BookingShortView> found = repository.findLastAndNextBookings(List.of(item.getId(), otherItem.getId()),
+                now);
+
+        assertThat(found).extracting(BookingShortView::getId)
+                .containsExactlyInAnyOrder(lastBooking.getId(), nextBooking.getId(), otherLastBooking.getId());
+    }
+
+    @Test
+    void findByItemOwnerIdReturnsViewTest() {
+        Slice<BookingView> page = repository.findByItemOwnerId(item.getOwner().getId(),
+                BookingFilter.of(State.ALL, now), PageRequest.of(0, 1));
+        BookingView found = page.getContent().get(0);
+
+        assertThat(page.hasNext()).isTrue();
+        assertThat(found.getItemId()).isEqualTo(item.getId());
+        assertThat(found.getItemName()).isEqualTo("item");
+        assertThat(found.getBookerId()).isEqualTo(booker.getId());
+        assertThat(found.getStartDate()).isEqualTo(now.plusDays(5));
+        assertThat(found.getEndDate()).isEqualTo(now.plusDays(5).plusHours(2));
+        assertThat(found.getStatus()).isEqualTo(Status.APPROVED);
+    }
+
+    @Test
+    void findByBookerIdAfterCursorWalksAllBookingsTest() {
+        createBooking(otherItem, booker, lastBooking.getStart(), Status.APPROVED);
+        List<Long> expectedIds = repository.findAll().stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+
+        List<Long> foundIds = new ArrayList<>();
+        BookingCursor cursor = BookingCursor.FIRST;
+        Slice<BookingView> page;
+        do {
+            page = repository.findByBookerIdAfterCursor(booker.getId(), BookingFilter.of(State.ALL, now),
+                    cursor.getStart(), cursor.getId(), PageRequest.of(0, 3));
+            page.forEach(booking -> foundIds.add(booking.getId()));
+            BookingView last = page.getContent().get(page.getNumberOfElements() - 1);
+            cursor = new BookingCursor(last.getStartDate(), last.getId());
+        } while (page.hasNext());
+
+        assertThat(foundIds).containsExactlyElementsOf(expectedIds);
+    }
+
+    @Test
+    void findPastByBookerIdAfterCursorTest() {
+        Slice<BookingView> page = repository.findByBookerIdAfterCursor(booker.getId(),
+                BookingFilter.of(State.PAST, now), nextBooking.getStart(), nextBooking.getId(), PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(BookingView::getStartDate)
+                .containsExactly(lastBooking.getStart(), otherLastBooking.getStart(), now.minusDays(5));
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void findByBookerIdWithFilterTest() {
+        assertThat(startDates(State.ALL)).hasSize(7);
+        assertThat(startDates(State.PAST))
+                .containsExactly(now.minusDays(1), now.minusDays(2), now.minusDays(5));
+        assertThat(startDates(State.CURRENT)).containsExactly(now.minusHours(1));
+        assertThat(startDates(State.FUTURE))
+                .containsExactly(now.plusDays(5), now.plusDays(1), now.plusHours(1));
+        assertThat(startDates(State.WAITING)).containsExactly(now.plusHours(1));
+        assertThat(startDates(State.REJECTED)).containsExactly(now.minusHours(1));
+    }
+
+    @Test
+    void findBusyIntervalsTest() {
+        List<BookingShortView> found = repository.findBusyIntervals(item.getId(), Status.BLOCKING,
+                now.minusDays(1).plusHours(1), now.plusDays(1).plusHours(1));
+
+        assertThat(found).extracting(BookingShortView::getStartDate)
+                .containsExactly(now.minusDays(1), now.plusHours(1), now.plusDays(1));
+    }
+
+    @Test
+    void existsOverlappingTest() {
+        assertThat(repository.existsOverlapping(item.getId(), Status.BLOCKING, now.minusDays(1).plusHours(1),
+                now.minusDays(1).plusHours(3))).isTrue();
+        assertThat(repository.existsOverlapping(item.getId(), Status.BLOCKING, now.minusHours(1),
+                now.minusMinutes(30))).isFalse();
+        assertThat(repository.existsOverlapping(otherItem.getId(), Status.BLOCKING, now.minusDays(1),
+                now.plusDays(1))).isFalse();
+    }
+
+    @Test
+    void streamByItemOwnerIdReadsAllBookingsInOrderTest() {
+        List<Long> expectedIds = repository.findAll().stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+
+        try (Stream<BookingView> bookings = repository.streamByItemOwnerId(item.getOwner().getId(),
+                BookingFilter.of(State.ALL, now))) {
+            assertThat(bookings.map(BookingView::getId)).containsExactlyElementsOf(expectedIds);
+        }
+    }
+
+    @Test
+    void streamByItemOwnerIdAndStatusTest() {
+        try (Stream<BookingView> bookings = repository.streamByItemOwnerId(item.getOwner().getId(),
+                BookingFilter.of(State.WAITING, now))) {
+            assertThat(bookings).extracting(BookingView::getStartDate, BookingView::getItemName)
+                    .containsExactly(tuple(now.plusHours(1), "item"));
+        }
+    }
+
+    @Test
+    void streamCurrentByItemOwnerIdTest() {
+        try (Stream<BookingView> bookings = repository.streamByItemOwnerId(item.getOwner().getId(),
+                BookingFilter.of(State.CURRENT, now))) {
+            assertThat(bookings).extracting(BookingView::getStartDate, BookingView::getStatus)
+                    .containsExactly(tuple(now.minusHours(1), Status.REJECTED));
+        }
+    }
+
+    private List<LocalDateTime> startDates(State state) {
+        return repository.findByBookerId(booker.getId(), BookingFilter.of(state, now), PageRequest.of(0, 10))
+                .map(BookingView::getStartDate)
+                .getContent();
+    }
+
+    private Item createItem(User owner, String name) {
+        Item newItem = new Item();
+        newItem.setOwner(owner);
+        newItem.setName(name);
+        newItem.setDescription("description");
+        newItem.setAvailable(true);
+        return entityManager.persist(newItem);
+    }
+
+    private Booking createBooking(Item bookedItem, User booker, LocalDateTime start, Status status) {
+        Booking booking = new Booking();
+        booking.setItem(bookedItem);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(2));
+        booking.setStatus(status);
+        return entityManager.persist(booking);
+    }
+}
@@ -7,7 +7,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.*;
@@ -17,6 +19,8 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -78,6 +82,14 @@ public class BookingServiceImplTest {
         assertThrows(TimeException.class, () -> bookingService.createBooking(2L, bookingDto));
     }
 
+    @Test
+    void createBookingTooLongTest() {
+        LocalDateTime start = LocalDateTime.now().plusMinutes(1);
+        BookingDto bookingDto = getBookingDto(start, start.plus(Booking.MAX_DURATION).plusMinutes(1));
+
+        assertThrows(TimeException.class, () -> bookingService.createBooking(2L, bookingDto));
+    }
+
     @Test
     void createBookingOwnerTest() {
         BookingDto bookingDto = getBookingDto(LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusMinutes(2));
@@ -94,6 +106,34 @@ public class BookingServiceImplTest {
         assertThrows(ItemNotAvailable.class, () -> bookingService.createBooking(2L, bookingDto));
     }
 
+    @Test
+    void createBookingOverlapTest() {
+        userService.createUser(UserDto.builder()
+                .name("name1")
+                .email("a@mail.com")
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingService.createBooking(2L, getBookingDto(start, start.plusDays(2)));
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.createBooking(2L, getBookingDto(start.plusDays(1), start.plusDays(3))));
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.createBooking(2L, getBookingDto(start.minusHours(1), start.plusHours(1))));
+
+        BookingDto adjacent = bookingService.createBooking(2L, getBookingDto(start.plusDays(2), start.plusDays(3)));
+        assertEquals(Status.WAITING, adjacent.getStatus());
+    }
+
+    @Test
+    void createBookingOverRejectedTest() {
+        createBookingTest();
+        bookingService.changeStatus(1L, 1L, false);
+
+        BookingDto bookingDto = bookingService.createBooking(2L,
+                getBookingDto(LocalDateTime.now().plusMinutes(2), LocalDateTime.now().plusMinutes(4)));
+        assertEquals(2L, bookingDto.getId());
+    }
+
     @Test
     void changeStatusNoOwnerTest() {
         createBookingTest();
@@ -131,6 +171,9 @@ public class BookingServiceImplTest {
         createBookingTest();
         List<BookingDto> bookings = bookingService.getBookingsOfUser(2L, "ALL", pageable);
         assertEquals(1, bookings.size());
+        assertEquals(item.getId(), bookings.get(0).getItem().getId());
+        assertEquals("item", bookings.get(0).getItem().getName());
+        assertEquals(2L, bookings.get(0).getBooker().getId());
     }
 
     @Test
@@ -175,6 +218,24 @@ public class BookingServiceImplTest {
         assertEquals(1, bookings.size());
     }
 
+    @Test
+    void exportBookingsByItemOwnerTest() {
+        createBookingTest();
+        List<BookingDto> exported = new ArrayList<>();
+        bookingService.exportBookingsByItemOwner(1L, "ALL", exported::add);
+        assertEquals(bookingService.getBookingsByItemOwner(1L, "ALL", pageable), exported);
+
+        exported.clear();
+        bookingService.exportBookingsByItemOwner(1L, "REJECTED", exported::add);
+        assertEquals(0, exported.size());
+    }
+
+    @Test
+    void exportBookingsByItemOwnerWrongParamsTest() {
+        assertThrows(StateException.class, () -> bookingService.checkBookingsByItemOwner(1L, "Unknown"));
+        assertThrows(UserNotFoundException.class, () -> bookingService.checkBookingsByItemOwner(99L, "ALL"));
+    }
+
     @Test
     void getBookingsByItemOwnerStateCurrentTest() {
         createBookingTest();
@@ -214,6 +275,39 @@ public class BookingServiceImplTest {
         assertThrows(StateException.class, () -> bookingService.getBookingsByItemOwner(1L, "", pageable));
     }
 
+    @Test
+    void getBookingsOfUserByCursorTest() {
+        createBookingTest();
+        bookingService.createBooking(2L, getBookingDto(LocalDateTime.now().plusHours(1),
+                LocalDateTime.now().plusHours(2)));
+        bookingService.createBooking(2L, getBookingDto(LocalDateTime.now().plusHours(3),
+                LocalDateTime.now().plusHours(4)));
+
+        Slice<BookingDto> first = bookingService.getBookingsOfUser(2L, "ALL", BookingCursor.FIRST, 2);
+        assertEquals(List.of(3L, 2L), first.map(BookingDto::getId).getContent());
+        assertTrue(first.hasNext());
+
+        Slice<BookingDto> second = bookingService.getBookingsOfUser(2L, "ALL",
+                BookingCursor.after(first.getContent().get(1)), 2);
+        assertEquals(List.of(1L), second.map(BookingDto::getId).getContent());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void getBookingsByItemOwnerByCursorTest() {
+        createBookingTest();
+        bookingService.createBooking(2L, getBookingDto(LocalDateTime.now().plusHours(1),
+                LocalDateTime.now().plusHours(2)));
+        bookingService.changeStatus(1L, 1L, false);
+
+        Slice<BookingDto> waiting = bookingService.getBookingsByItemOwner(1L, "WAITING", BookingCursor.FIRST, 10);
+        assertEquals(List.of(2L), waiting.map(BookingDto::getId).getContent());
+        assertThrows(StateException.class,
+                () -> bookingService.getBookingsByItemOwner(1L, "Unknown", BookingCursor.FIRST, 10));
+        assertThrows(UserNotFoundException.class,
+                () -> bookingService.getBookingsByItemOwner(5L, "ALL", BookingCursor.FIRST, 10));
+    }
+
     private BookingDto getBookingDto(LocalDateTime start, LocalDateTime end) {
         return BookingDto.builder()
                 .start(start)
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.item.availability.ItemAvailability;
+import ru.practicum.shareit.item.dto.FreeWindowDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ItemAvailabilityTest {
+    private final LocalDateTime day = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    private BookingRepository bookingRepository;
+
+    private ItemAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        availability = new ItemAvailability(bookingRepository);
+    }
+
+    @Test
+    void getFreeWindowsTest() {
+        busy(interval(10, 12), interval(14, 15));
+
+        assertEquals(List.of(window(8, 10), window(12, 14), window(15, 18)),
+                availability.getFreeWindows(1L, day.plusHours(8), day.plusHours(18)));
+        verify(bookingRepository).findBusyIntervals(1L, Status.BLOCKING, day.plusHours(8), day.plusHours(18));
+    }
+
+    @Test
+    void getFreeWindowsStartingInsideBookingTest() {
+        busy(interval(10, 12));
+
+        assertEquals(List.of(window(12, 13)), availability.getFreeWindows(1L, day.plusHours(11), day.plusHours(13)));
+        assertTrue(availability.getFreeWindows(1L, day.plusHours(10), day.plusHours(12)).isEmpty());
+    }
+
+    @Test
+    void getFreeWindowsWithOverlappingBookingsTest() {
+        busy(interval(10, 16), interval(12, 14));
+
+        assertEquals(List.of(window(8, 10), window(16, 18)),
+                availability.getFreeWindows(1L, day.plusHours(8), day.plusHours(18)));
+    }
+
+    @Test
+    void getFreeWindowsReadsBookingsOnEveryCallTest() {
+        busy(interval(10, 12));
+        availability.getFreeWindows(1L, day, day.plusDays(1));
+        busy(interval(10, 12), interval(12, 14));
+
+        assertEquals(List.of(window(0, 10), window(14, 24)), availability.getFreeWindows(1L, day, day.plusDays(1)));
+        verify(bookingRepository, times(2)).findBusyIntervals(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    void getFreeWindowsSkipsPastTest() {
+        LocalDateTime now = LocalDateTime.now();
+        List<FreeWindowDto> windows = availability.getFreeWindows(2L, now.minusDays(1), now.plusHours(1));
+        assertEquals(1, windows.size());
+        assertFalse(windows.get(0).getStart().isBefore(now));
+        assertTrue(availability.getFreeWindows(2L, now.minusDays(2), now.minusDays(1)).isEmpty());
+        verify(bookingRepository, times(1)).findBusyIntervals(anyLong(), any(), any(), any());
+    }
+
+    private void busy(BookingShortView... intervals) {
+        when(bookingRepository.findBusyIntervals(anyLong(), any(), any(), any())).thenReturn(List.of(intervals));
+    }
+
+    private BookingShortView interval(int startHour, int endHour) {
+        BookingShortView booking = mock(BookingShortView.class);
+        when(booking.getStartDate()).thenReturn(day.plusHours(startHour));
+        when(booking.getEndDate()).thenReturn(day.plusHours(endHour));
+        return booking;
+    }
+
+    private FreeWindowDto window(int startHour, int endHour) {
+        return FreeWindowDto.builder()
+                .start(day.plusHours(startHour))
+                .end(day.plusHours(endHour))
+                .build();
+    }
+}
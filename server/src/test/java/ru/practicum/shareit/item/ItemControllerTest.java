@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.CommentException;
@@ -14,16 +15,24 @@ import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeWindowDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -122,6 +131,29 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.id", is(itemDto.getId().intValue())));
     }
 
+    @Test
+    void getItemByIdWithETagTest() throws Exception {
+        itemDto.setTag("1.0");
+        when(itemService.getItemById(any(), any())).thenReturn(itemDto);
+        mockMvc.perform(get("/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0\""))
+                .andExpect(jsonPath("$.tag").doesNotExist());
+    }
+
+    @Test
+    void getItemByIdNotModifiedTest() throws Exception {
+        when(itemService.getMatchingItemTag(1L, 1L, "\"1.0\"")).thenReturn(Optional.of("1.0"));
+        mockMvc.perform(get("/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0\""))
+                .andExpect(content().string(""));
+        verify(itemService, never()).getItemById(any(), eq(1L));
+    }
+
     @Test
     void getItemByIdNotFoundTest() throws Exception {
         when(itemService.getItemById(any(), any()))
@@ -164,6 +196,40 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    void searchItemTextModeTest() throws Exception {
+        when(itemService.searchText(any(), any())).thenReturn(List.of(itemDto));
+        mockMvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "am")
+                        .param("mode", "text"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void searchItemUnknownModeTest() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "name")
+                        .param("mode", "fuzzy"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemService.getAvailability(1L, from, from.plusHours(2)))
+                .thenReturn(List.of(FreeWindowDto.builder().start(from).end(from.plusHours(2)).build()));
+        mockMvc.perform(get("/items/{id}/availability", 1)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-01T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].end", is("2030-01-01T12:00:00")));
+    }
+
     @Test
     void addCommentTest() throws Exception {
         when(itemService.createComment(any(), any(), any())).thenReturn(commentDto);
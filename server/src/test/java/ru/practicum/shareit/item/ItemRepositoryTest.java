@@ -5,8 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.config.JpaConfig;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
@@ -16,6 +20,7 @@ import java.time.LocalDateTime;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@Import(JpaConfig.class)
 public class ItemRepositoryTest {
     @Autowired
     private TestEntityManager entityManager;
@@ -23,9 +28,14 @@ public class ItemRepositoryTest {
     @Autowired
     private ItemRepository repository;
 
+    private Item item;
+
+    private User user;
+
     @BeforeEach
     void beforeEach() {
         User user = new User();
+        this.user = user;
         user.setName("name");
         user.setEmail("a@mail.com");
 
@@ -51,18 +61,89 @@ public class ItemRepositoryTest {
         item.setDescription("description");
         item.setRequest(itemRequest);
 
-        entityManager.persist(item);
+        this.item = entityManager.persist(item);
     }
 
     @Test
     void findByNameOrDescriptionTest() {
-        Page<Item> found = repository.findByNameOrDescription("iTeM", Pageable.ofSize(10));
+        Slice<ItemView> found = repository.findByNameOrDescription("iTeM", Pageable.ofSize(10));
         assertThat(found).isNotEmpty();
+        assertThat(found.getContent().get(0).getRequestId()).isEqualTo(item.getRequest().getId());
     }
 
     @Test
     void findByNameOrDescriptionNotFoundTest() {
-        Page<Item> found = repository.findByNameOrDescription("nothing", Pageable.ofSize(10));
+        Slice<ItemView> found = repository.findByNameOrDescription("nothing", Pageable.ofSize(10));
         assertThat(found).isEmpty();
     }
+
+    @Test
+    void findByOwnerIdTest() {
+        Slice<ItemView> found = repository.findByOwnerId(item.getOwner().getId(), Pageable.ofSize(10));
+
+        assertThat(found.getContent()).hasSize(1);
+        assertThat(found.getContent().get(0).getId()).isEqualTo(item.getId());
+        assertThat(found.getContent().get(0).getName()).isEqualTo("item");
+        assertThat(found.getContent().get(0).getDescription()).isEqualTo("description");
+        assertThat(found.getContent().get(0).getAvailable()).isTrue();
+    }
+
+    @Test
+    void searchIgnoresCaseTest() {
+        Item drill = persist("Дрель", "Простая дрель", true);
+
+        assertThat(repository.search("дРелЬ", Pageable.ofSize(10))).extracting(ItemView::getId)
+                .containsExactly(drill.getId());
+        assertThat(repository.search("рель", Pageable.ofSize(10))).isEmpty();
+    }
+
+    @Test
+    void searchAfterPunctuationTest() {
+        Item drill = persist("Дрель-шуруповерт", "Набор (биты/сверла)", true);
+
+        assertThat(repository.search("шуруповерт", Pageable.ofSize(10))).extracting(ItemView::getId)
+                .containsExactly(drill.getId());
+        assertThat(repository.search("сверл бит", Pageable.ofSize(10))).extracting(ItemView::getId)
+                .containsExactly(drill.getId());
+        assertThat(repository.search("уруповерт", Pageable.ofSize(10))).isEmpty();
+    }
+
+    @Test
+    void searchRanksNameMatchFirstTest() {
+        Item kit = persist("Набор", "Бита для шуруповерта и отвертки", true);
+        Item screwdriver = persist("Отвертка", "Аккумуляторная отвертка", true);
+
+        assertThat(repository.search("оТверТ", Pageable.ofSize(10))).extracting(ItemView::getId)
+                .containsExactly(screwdriver.getId(), kit.getId());
+        assertThat(repository.search("оТверТ", PageRequest.of(1, 1))).extracting(ItemView::getId)
+                .containsExactly(kit.getId());
+    }
+
+    @Test
+    void searchRequiresEveryTermTest() {
+        persist("Набор", "Бита для шуруповерта и отвертки", true);
+        Item screwdriver = persist("Отвертка", "Аккумуляторная отвертка", true);
+
+        assertThat(repository.search("аккумуляторная, отвертка", Pageable.ofSize(10))).extracting(ItemView::getId)
+                .containsExactly(screwdriver.getId());
+        assertThat(repository.search("аккумуляторная бита", Pageable.ofSize(10))).isEmpty();
+    }
+
+    @Test
+    void searchSkipsUnavailableItemsAndBlankTextTest() {
+        persist("Аккумуляторная дрель", "Дрель с аккумулятором", false);
+
+        assertThat(repository.search("аккумулятором", Pageable.ofSize(10))).isEmpty();
+        assertThat(repository.search(" ", Pageable.ofSize(10))).isEmpty();
+        assertThat(repository.search("%", Pageable.ofSize(10))).isEmpty();
+    }
+
+    private Item persist(String name, String description, boolean available) {
+        Item item = new Item();
+        item.setOwner(user);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return entityManager.persist(item);
+    }
 }
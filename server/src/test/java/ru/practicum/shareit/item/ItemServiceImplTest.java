@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,9 +10,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.exception.TimeException;
 import ru.practicum.shareit.exception.UserException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeWindowDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -18,6 +25,9 @@ import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +42,10 @@ public class ItemServiceImplTest {
 
     private final ItemRequestService itemRequestService;
 
+    private final BookingService bookingService;
+
+    private final EntityManagerFactory entityManagerFactory;
+
     private ItemDto itemDto;
 
     private UserDto userDto;
@@ -100,6 +114,33 @@ public class ItemServiceImplTest {
         Pageable pageable = PageRequest.of(0, 10);
         List<ItemDto> items = itemService.search("item", pageable);
         assertEquals(1, items.size());
+        assertEquals(1, itemService.searchText("item", pageable).size());
+    }
+
+    @Test
+    void searchUpdatedItemTest() {
+        createItemTest();
+        itemDto.setName("drill");
+        itemService.updateItem(itemDto, 1L, 1L);
+        Pageable pageable = PageRequest.of(0, 10);
+        assertEquals(0, itemService.searchText("item", pageable).size());
+        List<ItemDto> items = itemService.searchText("DRI", pageable);
+        assertEquals(1, items.size());
+        assertEquals("drill", items.get(0).getName());
+    }
+
+    @Test
+    void searchSubstringTest() {
+        createItemTest();
+        Pageable pageable = PageRequest.of(0, 10);
+        assertEquals(0, itemService.searchText("TE", pageable).size());
+        List<ItemDto> items = itemService.search("TE", pageable);
+        assertEquals(1, items.size());
+        assertEquals("item", items.get(0).getName());
+
+        itemDto.setAvailable(false);
+        itemService.updateItem(itemDto, 1L, 1L);
+        assertEquals(0, itemService.search("TE", pageable).size());
     }
 
     @Test
@@ -147,4 +188,74 @@ public class ItemServiceImplTest {
         assertThrows(UserException.class, () -> itemService.createComment(2L, 1L, commentDto));
     }
 
-}
\ No newline at end of file
+    @Test
+    void getItemsQueryCountDoesNotDependOnPageSizeTest() {
+        userService.createUser(userDto);
+        userService.createUser(UserDto.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        Pageable pageable = PageRequest.of(0, 100);
+
+        createApprovedBookedItem();
+        statistics.clear();
+        List<ItemDto> items = itemService.getItems(1L, pageable);
+        long singleItemQueries = statistics.getPrepareStatementCount();
+        assertEquals(1, items.size());
+
+        for (int i = 0; i < 9; i++) {
+            createApprovedBookedItem();
+        }
+        statistics.clear();
+        items = itemService.getItems(1L, pageable);
+        long tenItemsQueries = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(10, items.size());
+        assertEquals(singleItemQueries, tenItemsQueries);
+        items.forEach(item -> assertNotNull(item.getNextBooking()));
+    }
+
+    @Test
+    void getAvailabilityTest() {
+        createItemTest();
+        userDto.setEmail("booker@mail.com");
+        userService.createUser(userDto);
+        LocalDateTime day = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime from = day.plusHours(8);
+        LocalDateTime to = day.plusHours(18);
+        assertEquals(List.of(FreeWindowDto.builder().start(from).end(to).build()),
+                itemService.getAvailability(1L, from, to));
+
+        BookingDto booking = bookingService.createBooking(2L, BookingDto.builder()
+                .itemId(1L)
+                .start(day.plusHours(10))
+                .end(day.plusHours(12))
+                .build());
+        assertEquals(List.of(FreeWindowDto.builder().start(from).end(day.plusHours(10)).build(),
+                        FreeWindowDto.builder().start(day.plusHours(12)).end(to).build()),
+                itemService.getAvailability(1L, from, to));
+
+        bookingService.changeStatus(1L, booking.getId(), false);
+        assertEquals(1, itemService.getAvailability(1L, from, to).size());
+    }
+
+    @Test
+    void getAvailabilityWrongParamsTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        assertThrows(TimeException.class, () -> itemService.getAvailability(1L, from, from.minusHours(1)));
+        assertThrows(ItemNotFoundException.class, () -> itemService.getAvailability(1L, from, from.plusHours(1)));
+    }
+
+    private void createApprovedBookedItem() {
+        ItemDto item = itemService.createItem(itemDto, 1L);
+        BookingDto booking = bookingService.createBooking(2L, BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build());
+        bookingService.changeStatus(1L, booking.getId(), true);
+    }
+}
@@ -56,7 +56,7 @@ public class ItemRequestControllerTest {
 
     @Test
     void getOwnItemRequestsNotExistsUserTest() throws Exception {
-        when(itemRequestService.getOwnItemRequests(any()))
+        when(itemRequestService.getOwnItemRequests(any(), any()))
                 .thenThrow(new UserNotFoundException(String.format("Пользователя с id = %d не существует.", 1L)));
         mockMvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", 1L))
@@ -65,7 +65,7 @@ public class ItemRequestControllerTest {
 
     @Test
     void getOwnItemRequestsTest() throws Exception {
-        when(itemRequestService.getOwnItemRequests(any())).thenReturn(List.of(itemRequestDto, itemRequestDto));
+        when(itemRequestService.getOwnItemRequests(any(), any())).thenReturn(List.of(itemRequestDto, itemRequestDto));
 
         mockMvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", 1L))
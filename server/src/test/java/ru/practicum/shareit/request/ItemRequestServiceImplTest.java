@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +18,7 @@ import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,8 +33,12 @@ public class ItemRequestServiceImplTest {
 
     private final ItemService itemService;
 
+    private final EntityManagerFactory entityManagerFactory;
+
     private ItemRequestDto itemRequestDto;
 
+    private final Pageable pageable = PageRequest.of(0, 10);
+
     @BeforeEach
     void setUpItemRequestDto() {
         itemRequestDto = ItemRequestDto.builder()
@@ -61,17 +68,17 @@ public class ItemRequestServiceImplTest {
     @Test
     void getOwnerRequestsTest() {
         createRequestTest();
-        List<ItemRequestDto> items = itemRequestService.getOwnItemRequests(1L);
+        List<ItemRequestDto> items = itemRequestService.getOwnItemRequests(1L, pageable);
         assertEquals(1, items.size());
         userService.createUser(UserDto.builder()
                 .name("name1")
                 .email("@1")
                 .build());
-        items = itemRequestService.getOwnItemRequests(2L);
+        items = itemRequestService.getOwnItemRequests(2L, pageable);
 
         assertEquals(0, items.size());
 
-        assertThrows(UserNotFoundException.class, () -> itemRequestService.getOwnItemRequests(3L));
+        assertThrows(UserNotFoundException.class, () -> itemRequestService.getOwnItemRequests(3L, pageable));
 
     }
 
@@ -138,4 +145,64 @@ public class ItemRequestServiceImplTest {
         assertEquals(1, itemRequestDto.getItems().size());
         assertEquals("item", itemRequestDto.getItems().get(0).getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getOwnRequestsPageTest() {
+        userService.createUser(UserDto.builder()
+                .name("name")
+                .email("@")
+                .build());
+        for (int i = 0; i < 15; i++) {
+            itemRequestDto.setDescription("description" + i);
+            itemRequestService.createItemRequest(1L, itemRequestDto);
+        }
+
+        assertEquals(10, itemRequestService.getOwnItemRequests(1L, pageable).size());
+        List<ItemRequestDto> lastPage = itemRequestService.getOwnItemRequests(1L, PageRequest.of(1, 10));
+        assertEquals(5, lastPage.size());
+        assertEquals("description4", lastPage.get(0).getDescription());
+    }
+
+    @Test
+    void getRequestsItemsInOneQueryTest() {
+        userService.createUser(UserDto.builder()
+                .name("name")
+                .email("@")
+                .build());
+        userService.createUser(UserDto.builder()
+                .name("name1")
+                .email("@1")
+                .build());
+        for (int i = 0; i < 5; i++) {
+            itemRequestDto.setDescription("description" + i);
+            Long requestId = itemRequestService.createItemRequest(1L, itemRequestDto).getId();
+            for (int j = 0; j < i; j++) {
+                itemService.createItem(ItemDto.builder()
+                        .name("item" + i + j)
+                        .description("description")
+                        .available(true)
+                        .requestId(requestId)
+                        .build(), 2L);
+            }
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<ItemRequestDto> requests = itemRequestService.getOwnItemRequests(1L, pageable);
+        long ownQueries = statistics.getQueryExecutionCount();
+        statistics.clear();
+        List<ItemRequestDto> otherRequests = itemRequestService.getItemRequests(2L, pageable);
+        long otherQueries = statistics.getQueryExecutionCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(2, ownQueries);
+        assertEquals(2, otherQueries);
+        assertEquals(5, otherRequests.size());
+        for (ItemRequestDto request : requests) {
+            int expectedItems = Integer.parseInt(request.getDescription().substring("description".length()));
+            assertEquals(expectedItems, request.getItems().size());
+            request.getItems().forEach(item -> assertEquals(request.getId(), item.getRequestId()));
+        }
+    }
+}
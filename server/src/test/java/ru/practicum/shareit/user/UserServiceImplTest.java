@@ -11,7 +11,9 @@ import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -79,6 +81,35 @@ public class UserServiceImplTest {
         assertEquals("e1@yandex.ru", users.get(1).getEmail());
     }
 
+    @Test
+    void getUsersAfterIdTest() {
+        UserDto first = userService.createUser(userDto);
+        userDto.setEmail("e1@yandex.ru");
+        UserDto second = userService.createUser(userDto);
+        userDto.setEmail("e2@yandex.ru");
+        UserDto third = userService.createUser(userDto);
+
+        List<UserDto> firstPage = userService.getUsers(0L, 2);
+        List<UserDto> secondPage = userService.getUsers(firstPage.get(1).getId(), 2);
+
+        assertEquals(List.of(first.getId(), second.getId()),
+                firstPage.stream().map(UserDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(third.getId()),
+                secondPage.stream().map(UserDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void streamUsersTest() {
+        userService.createUser(userDto);
+        userDto.setEmail("e1@yandex.ru");
+        userService.createUser(userDto);
+
+        List<UserDto> users = new ArrayList<>();
+        userService.streamUsers(users::add);
+
+        assertEquals(userService.getUsers(), users);
+    }
+
     @Test
     void updateUserTest() {
         userDto = userService.createUser(userDto);